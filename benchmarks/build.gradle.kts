@@ -0,0 +1,26 @@
+plugins {
+    java
+    // JMH harness: ./gradlew :benchmarks:jmh
+    alias(libs.plugins.jmh)
+}
+
+repositories {
+    // Use Maven Central for resolving dependencies.
+    mavenCentral()
+}
+
+dependencies {
+    jmh(project(":plugin"))
+
+    // Used to generate encrypted settings fixtures
+    jmh(libs.plexus.cipher)
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh
+    // Allocation rate per operation
+    profilers.add("gc")
+    resultFormat = "JSON"
+    // Run a subset with -PjmhIncludes=<regex>
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
+}
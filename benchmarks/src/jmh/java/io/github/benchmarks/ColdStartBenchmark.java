@@ -0,0 +1,56 @@
+package io.github.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The full settings pipeline as the first thing a fresh JVM does, including class loading and interpreted
+ * execution, which is what a build pays in a new daemon. Compare with
+ * {@link RepositoryPlanBenchmark#fullPipeline} for the warm cost. Generating an encrypted fixture already loads
+ * the cipher classes, so the encrypted variants slightly understate the cold decryption cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class ColdStartBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    int size;
+
+    @Param({"false", "true"})
+    boolean encrypted;
+
+    private SettingsFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = SettingsFixture.generate(size, encrypted);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.delete();
+    }
+
+    @Benchmark
+    public void fullPipeline(Blackhole blackhole) throws Exception {
+        RepositoryPlanBenchmark.resolve(fixture, blackhole);
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.benchmarks;
+
+import io.github.parser.MavenSettingsLoader;
+import io.github.plan.ResolutionIndex;
+import org.apache.maven.settings.Profile;
+import org.apache.maven.settings.Repository;
+import org.apache.maven.settings.Settings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a {@link ResolutionIndex} and looking up the mirror and server of every repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MirrorResolutionBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    int size;
+
+    private SettingsFixture fixture;
+    private Settings settings;
+    private List<Repository> repositories;
+    private ResolutionIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = SettingsFixture.generate(size, false);
+        settings = new MavenSettingsLoader().loadSettings(fixture.getUserSettingsFile(), null);
+        repositories = new ArrayList<>();
+        for (Profile profile : settings.getProfiles()) {
+            repositories.addAll(profile.getRepositories());
+        }
+        index = new ResolutionIndex(settings);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.delete();
+    }
+
+    @Benchmark
+    public ResolutionIndex buildIndex() {
+        return new ResolutionIndex(settings);
+    }
+
+    @Benchmark
+    public void resolveAll(Blackhole blackhole) {
+        for (Repository repository : repositories) {
+            blackhole.consume(index.findMirror(repository.getId(), repository.getUrl()));
+            blackhole.consume(index.findServer(repository.getId()));
+        }
+    }
+}
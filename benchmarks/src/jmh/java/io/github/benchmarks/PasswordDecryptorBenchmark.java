@@ -0,0 +1,59 @@
+package io.github.benchmarks;
+
+import io.github.crypto.MavenPasswordDecryptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decrypting every server password of a settings file with {@link MavenPasswordDecryptor}.
+ * <p>
+ * The decryptor memoizes up to 1024 passwords, so small sizes measure cache hits while the 10,000-server
+ * case keeps evicting entries and measures the cipher itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordDecryptorBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    int size;
+
+    private SettingsFixture fixture;
+    private MavenPasswordDecryptor decryptor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = SettingsFixture.generate(size, true);
+        // Shared by all invocations, like the build service shares one per security settings file
+        decryptor = new MavenPasswordDecryptor(fixture.getSecuritySettingsFile());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.delete();
+    }
+
+    @Benchmark
+    public void decryptAll(Blackhole blackhole) {
+        for (String password : fixture.getPasswords()) {
+            blackhole.consume(decryptor.decrypt(password));
+        }
+    }
+}
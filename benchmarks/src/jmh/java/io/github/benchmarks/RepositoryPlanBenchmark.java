@@ -0,0 +1,82 @@
+package io.github.benchmarks;
+
+import io.github.crypto.MavenPasswordDecryptor;
+import io.github.parser.MavenSettingsLoader;
+import io.github.plan.RepositoryPlan;
+import io.github.plan.RepositoryPlanBuilder;
+import io.github.plan.ResolvedRepository;
+import org.apache.maven.settings.Settings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a {@link RepositoryPlan} from loaded settings, and the whole pipeline from settings files to
+ * decrypted credentials, in a warmed-up JVM. {@link ColdStartBenchmark} measures the same pipeline cold.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryPlanBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    int size;
+
+    @Param({"false", "true"})
+    boolean encrypted;
+
+    private SettingsFixture fixture;
+    private Settings settings;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = SettingsFixture.generate(size, encrypted);
+        settings = new MavenSettingsLoader().loadSettings(fixture.getUserSettingsFile(), null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.delete();
+    }
+
+    @Benchmark
+    public RepositoryPlan buildPlan() {
+        return new RepositoryPlanBuilder().build(settings);
+    }
+
+    @Benchmark
+    public void fullPipeline(Blackhole blackhole) throws Exception {
+        resolve(fixture, blackhole);
+    }
+
+    /**
+     * Loads the settings, builds the plan and decrypts every server password, like a build does.
+     */
+    static void resolve(SettingsFixture fixture, Blackhole blackhole) throws Exception {
+        Settings settings = new MavenSettingsLoader().loadSettings(fixture.getUserSettingsFile(), null);
+        RepositoryPlan plan = new RepositoryPlanBuilder().build(settings);
+        MavenPasswordDecryptor decryptor = new MavenPasswordDecryptor(fixture.getSecuritySettingsFile());
+        for (ResolvedRepository repository : plan.getRepositories()) {
+            if (repository.getCredentials() != null) {
+                blackhole.consume(decryptor.tryDecrypt(repository.getCredentials().getPassword()));
+            }
+        }
+        blackhole.consume(plan);
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.benchmarks;
+
+import org.sonatype.plexus.components.cipher.DefaultPlexusCipher;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Generated settings.xml and settings-security.xml files for benchmarks.
+ * <p>
+ * A fixture of size {@code n} has {@code n} active profiles with one repository each, a server for every
+ * repository and an explicit mirror for every other repository.
+ */
+final class SettingsFixture {
+
+    static final String MASTER_PASSWORD = "benchmark-master";
+
+    // Passphrase Maven uses to protect the master password in settings-security.xml
+    private static final String MASTER_PASSPHRASE = "settings.security";
+
+    private final Path directory;
+    private final List<String> passwords;
+
+    private SettingsFixture(Path directory, List<String> passwords) {
+        this.directory = directory;
+        this.passwords = passwords;
+    }
+
+    static SettingsFixture generate(int size, boolean encrypted) throws Exception {
+        DefaultPlexusCipher cipher = new DefaultPlexusCipher();
+        Path directory = Files.createTempDirectory("mvn-settings-bench");
+        List<String> passwords = new ArrayList<>(size);
+
+        StringBuilder xml = new StringBuilder("<settings>\n  <servers>\n");
+        for (int i = 0; i < size; i++) {
+            String password = encrypted
+                    ? cipher.encryptAndDecorate("secret-" + i, MASTER_PASSWORD)
+                    : "secret-" + i;
+            passwords.add(password);
+            xml.append("    <server><id>repo-").append(i).append("</id><username>user-").append(i)
+                    .append("</username><password>").append(password).append("</password></server>\n");
+        }
+        xml.append("  </servers>\n  <mirrors>\n");
+        for (int i = 0; i < size; i += 2) {
+            xml.append("    <mirror><id>mirror-").append(i).append("</id><mirrorOf>repo-").append(i)
+                    .append("</mirrorOf><url>https://mirror-").append(i).append(".example.com/maven2</url></mirror>\n");
+        }
+        xml.append("  </mirrors>\n  <profiles>\n");
+        for (int i = 0; i < size; i++) {
+            xml.append("    <profile><id>profile-").append(i).append("</id><repositories><repository><id>repo-")
+                    .append(i).append("</id><url>https://repo-").append(i)
+                    .append(".example.com/maven2</url></repository></repositories></profile>\n");
+        }
+        xml.append("  </profiles>\n  <activeProfiles>\n");
+        for (int i = 0; i < size; i++) {
+            xml.append("    <activeProfile>profile-").append(i).append("</activeProfile>\n");
+        }
+        xml.append("  </activeProfiles>\n</settings>\n");
+        Files.writeString(directory.resolve("settings.xml"), xml, StandardCharsets.UTF_8);
+
+        Files.writeString(directory.resolve("settings-security.xml"),
+                "<settingsSecurity><master>" + cipher.encryptAndDecorate(MASTER_PASSWORD, MASTER_PASSPHRASE)
+                        + "</master></settingsSecurity>\n", StandardCharsets.UTF_8);
+        return new SettingsFixture(directory, passwords);
+    }
+
+    File getUserSettingsFile() {
+        return directory.resolve("settings.xml").toFile();
+    }
+
+    File getSecuritySettingsFile() {
+        return directory.resolve("settings-security.xml").toFile();
+    }
+
+    /**
+     * Server passwords as written in settings.xml.
+     */
+    List<String> getPasswords() {
+        return passwords;
+    }
+
+    void delete() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
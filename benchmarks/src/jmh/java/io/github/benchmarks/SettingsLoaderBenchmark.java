@@ -0,0 +1,53 @@
+package io.github.benchmarks;
+
+import io.github.parser.MavenSettingsLoader;
+import org.apache.maven.settings.Settings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing, merging and interpolating settings.xml with {@link MavenSettingsLoader}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SettingsLoaderBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    int size;
+
+    private SettingsFixture fixture;
+    private MavenSettingsLoader loader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        fixture = SettingsFixture.generate(size, false);
+        loader = new MavenSettingsLoader();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        fixture.delete();
+    }
+
+    @Benchmark
+    public Settings loadSettings() throws Exception {
+        return loader.loadSettings(fixture.getUserSettingsFile(), null);
+    }
+}
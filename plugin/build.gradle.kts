@@ -9,12 +9,15 @@ repositories {
 }
 
 dependencies {
-    // Maven Settings Builder for parsing settings.xml
-    implementation(libs.maven.settings.builder)
-    
-    // Plexus Cipher and Sec Dispatcher for decryption
-    implementation(libs.plexus.cipher)
-    implementation(libs.plexus.sec.dispatcher)
+    // Maven Settings Builder for parsing settings.xml. Passwords are decrypted with javax.crypto
+    // (io.github.crypto.MavenCipher), so its settings decrypter dependencies are not needed.
+    implementation(libs.maven.settings.builder) {
+        exclude(group = "org.codehaus.plexus", module = "plexus-sec-dispatcher")
+        exclude(group = "org.codehaus.plexus", module = "plexus-cipher")
+    }
+
+    // Plexus Cipher, the reference implementation the decryption is checked against
+    testImplementation(libs.plexus.cipher)
     
     // Sisu Inject / Guice might be needed by Maven components, but let's see if transitive deps cover it.
 }
@@ -26,10 +29,35 @@ testing {
             // Use JUnit Jupiter test framework
             useJUnitJupiter(libs.versions.junit.jupiter)
         }
+
+        // Configuration-time scale harness over generated multi-project builds, not part of check:
+        // ./gradlew :plugin:scaleTest [-Pscale.projects=10,100] [-Pscale.baseline=<earlier results.json>]
+        register<JvmTestSuite>("scaleTest") {
+            useJUnitJupiter(libs.versions.junit.jupiter)
+            dependencies {
+                implementation(gradleTestKit())
+                // Encrypts the generated settings passwords
+                implementation(libs.plexus.cipher)
+            }
+            targets.all {
+                testTask.configure {
+                    providers.gradlePropertiesPrefixedBy("scale.").get().forEach { (name, value) ->
+                        systemProperty(name, value)
+                    }
+                    systemProperty("scale.output",
+                        layout.buildDirectory.file("reports/scale/results.json").get().asFile.absolutePath)
+                    // Measurements, never up to date
+                    outputs.upToDateWhen { false }
+                    testLogging.showStandardStreams = true
+                }
+            }
+        }
     }
 }
 
 gradlePlugin {
+    testSourceSets(sourceSets["test"], sourceSets["scaleTest"])
+
     // Define the plugin
     plugins.create("mvnSettings") {
         id = "io.github.joaojunceira.gradle-mvn-settings"
@@ -37,4 +65,10 @@ gradlePlugin {
         displayName = "Gradle Maven Settings Plugin"
         description = "A Gradle plugin to load repositories and authentication from Maven settings.xml"
     }
+    plugins.create("mvnSettingsSettings") {
+        id = "io.github.joaojunceira.gradle-mvn-settings.settings"
+        implementationClass = "io.github.GradleMvnSettingsSettingsPlugin"
+        displayName = "Gradle Maven Settings Settings Plugin"
+        description = "Configures dependencyResolutionManagement and pluginManagement repositories from Maven settings.xml"
+    }
 }
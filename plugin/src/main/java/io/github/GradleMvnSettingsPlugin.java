@@ -1,28 +1,28 @@
 package io.github;
 
-import org.apache.maven.settings.Mirror;
-import org.apache.maven.settings.Profile;
-import org.apache.maven.settings.Proxy;
-import org.apache.maven.settings.Repository;
-import org.apache.maven.settings.Server;
-import org.apache.maven.settings.Settings;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
-import org.gradle.api.artifacts.dsl.RepositoryHandler;
-import org.gradle.authentication.http.BasicAuthentication;
+import org.gradle.api.configuration.BuildFeatures;
+import org.gradle.api.provider.Provider;
 
-import io.github.crypto.MavenPasswordDecryptor;
 import io.github.extension.MavenSettingsExtension;
-import io.github.parser.MavenSettingsLoader;
+import io.github.report.MavenSettingsReportTask;
+import io.github.service.MavenSettingsService;
+import io.github.snapshot.MavenSettingsSnapshotTask;
 
-import java.io.File;
-import java.util.List;
-import java.util.Map;
+import javax.inject.Inject;
 
 /**
  * Plugin to load Maven settings into Gradle.
+ * <p>
+ * Only configures the project it is applied to and sets no JVM system properties. Everything shared between
+ * projects goes through {@link MavenSettingsService}, so the plugin works with isolated projects and parallel
+ * configuration.
  */
-public class GradleMvnSettingsPlugin implements Plugin<Project> {
+public abstract class GradleMvnSettingsPlugin implements Plugin<Project> {
+
+    @Inject
+    protected abstract BuildFeatures getBuildFeatures();
 
     @Override
     public void apply(Project project) {
@@ -30,138 +30,38 @@ public class GradleMvnSettingsPlugin implements Plugin<Project> {
         MavenSettingsExtension extension = project.getExtensions().create("mavenSettings",
                 MavenSettingsExtension.class);
 
+        // Settings are parsed once per build and shared by every project
+        Provider<MavenSettingsService> service = MavenSettingsService.register(project.getGradle(),
+                project.getProviders());
+
+        MavenSettingsReportTask.register(project, service);
+        MavenSettingsSnapshotTask.register(project, service, extension);
+
+        // Start on the default files while the build script is evaluated
+        RepositoryConfigurer.prefetch(service, extension, project.getProviders());
+
         project.afterEvaluate(p -> {
             try {
-                loadAndApplySettings(p, extension);
+                loadAndApplySettings(p, extension, service);
             } catch (Exception e) {
                 p.getLogger().error("Failed to load Maven settings", e);
             }
         });
     }
 
-    private void loadAndApplySettings(Project project, MavenSettingsExtension extension) throws Exception {
-        File userSettings = extension.getUserSettingsFile().isPresent()
-                ? extension.getUserSettingsFile().getAsFile().get()
-                : new File(System.getProperty("user.home"), ".m2/settings.xml");
-
-        File globalSettings = extension.getGlobalSettingsFile().isPresent()
-                ? extension.getGlobalSettingsFile().getAsFile().get()
-                : null;
-
-        File securitySettings = extension.getSecuritySettingsFile().isPresent()
-                ? extension.getSecuritySettingsFile().getAsFile().get()
-                : new File(System.getProperty("user.home"), ".m2/settings-security.xml");
-
-        MavenSettingsLoader loader = new MavenSettingsLoader();
-        Settings settings = loader.loadSettings(userSettings, globalSettings);
-
-        MavenPasswordDecryptor decryptor = new MavenPasswordDecryptor(securitySettings);
+    private void loadAndApplySettings(Project project, MavenSettingsExtension extension,
+                                      Provider<MavenSettingsService> service) {
+        RepositoryConfigurer configurer = new RepositoryConfigurer(service, extension, project.getProviders(),
+                getBuildFeatures().getConfigurationCache().getActive().get(), project.getLogger());
 
-        // 1. Proxies
-        configureProxies(settings, project);
+        // 1. Proxies, HTTP timeouts and retries
+        configurer.configureProxies();
+        configurer.configureTransport();
 
         // 2. Repositories from Profiles
-        configureRepositories(settings, project, decryptor);
-    }
-
-    private void configureProxies(Settings settings, Project project) {
-        // Simple proxy logging for now
-        Proxy proxy = settings.getActiveProxy();
-        if (proxy != null) {
-            project.getLogger().info("Found active Maven proxy: {}:{}", proxy.getHost(), proxy.getPort());
-            // In a real implementation, we would set system properties here if not present:
-            // System.setProperty("http.proxyHost", proxy.getHost());
-            // System.setProperty("http.proxyPort", String.valueOf(proxy.getPort()));
-            // etc.
-        }
-    }
-
-    private void configureRepositories(Settings settings, Project project, MavenPasswordDecryptor decryptor) {
-        List<String> activeProfileIds = settings.getActiveProfiles();
-        Map<String, Profile> profiles = settings.getProfilesAsMap();
-
-        RepositoryHandler gradleRepos = project.getRepositories();
-
-        for (String profileId : activeProfileIds) {
-            Profile profile = profiles.get(profileId);
-            if (profile != null) {
-                for (Repository mavenRepo : profile.getRepositories()) {
-                    addRepository(gradleRepos, mavenRepo, settings, decryptor);
-                }
-            }
-        }
-    }
+        configurer.configureRepositories(project.getRepositories());
 
-    private void addRepository(RepositoryHandler gradleRepos, Repository mavenRepo, Settings settings,
-                               MavenPasswordDecryptor decryptor) {
-        String url = mavenRepo.getUrl();
-        String id = mavenRepo.getId();
-
-        // Check for Mirrors
-        Mirror mirror = getMirror(settings, id);
-        if (mirror != null) {
-            url = mirror.getUrl();
-            id = mirror.getId();
-        }
-
-        // Check for Auth (Server)
-        Server server = settings.getServer(id);
-
-        String finalUrl = url;
-        String finalId = id;
-
-        gradleRepos.maven(repo -> {
-            repo.setName(finalId);
-            repo.setUrl(finalUrl);
-
-            if (server != null) {
-                repo.getCredentials().setUsername(server.getUsername());
-                if (server.getPassword() != null) {
-                    try {
-                        repo.getCredentials().setPassword(decryptor.decrypt(server.getPassword()));
-                    } catch (Exception e) {
-                        repo.getCredentials().setPassword(server.getPassword());
-                    }
-                }
-                repo.authentication(auth -> auth.create("basic", BasicAuthentication.class));
-            }
-        });
-    }
-
-    private Mirror getMirror(Settings settings, String repoId) {
-        for (Mirror mirror : settings.getMirrors()) {
-            if (matches(mirror.getMirrorOf(), repoId)) {
-                return mirror;
-            }
-        }
-        return null;
-    }
-
-    private boolean matches(String mirrorOf, String repoId) {
-        if (mirrorOf == null)
-            return false;
-        if ("*".equals(mirrorOf))
-            return true;
-
-        // Handle "external:*" which is common
-        if ("external:*".equals(mirrorOf)) {
-            // Basic assumption: most http/https repos are external except localhost/file
-            // This is a simplification.
-            return true;
-        }
-
-        // Split by comma
-        String[] patterns = mirrorOf.split(",");
-        for (String pattern : patterns) {
-            if (pattern.trim().equals(repoId))
-                return true;
-            if (pattern.trim().equals("*"))
-                return true;
-            // Handle !repoId logic for exclusions (simplified handling here)
-            if (pattern.trim().startsWith("!") && pattern.trim().substring(1).equals(repoId)) {
-                return false;
-            }
-        }
-        return false;
+        // 3. Repositories declared in the build script go through the mirrors as well
+        configurer.mirrorDeclaredRepositories(project.getRepositories());
     }
 }
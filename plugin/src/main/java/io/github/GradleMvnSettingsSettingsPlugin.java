@@ -0,0 +1,95 @@
+package io.github;
+
+import org.gradle.api.Plugin;
+import org.gradle.api.artifacts.dsl.RepositoryHandler;
+import org.gradle.api.configuration.BuildFeatures;
+import org.gradle.api.initialization.Settings;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Provider;
+
+import io.github.extension.MavenSettingsExtension;
+import io.github.mirror.MirrorRewriter;
+import io.github.report.MavenSettingsReportTask;
+import io.github.service.MavenSettingsService;
+import io.github.service.SettingsFiles;
+import io.github.snapshot.MavenSettingsSnapshotTask;
+
+import javax.inject.Inject;
+
+/**
+ * Settings plugin to load Maven settings into Gradle.
+ * <p>
+ * Registers the repositories once in {@code dependencyResolutionManagement} and {@code pluginManagement}
+ * instead of on every project, so large builds do not need to apply the project plugin to each subproject.
+ */
+public abstract class GradleMvnSettingsSettingsPlugin implements Plugin<Settings> {
+
+    @Inject
+    protected abstract BuildFeatures getBuildFeatures();
+
+    private static final Logger LOGGER = Logging.getLogger(GradleMvnSettingsSettingsPlugin.class);
+
+    @Override
+    public void apply(Settings settings) {
+        // Register the extension
+        MavenSettingsExtension extension = settings.getExtensions().create("mavenSettings",
+                MavenSettingsExtension.class);
+
+        Provider<MavenSettingsService> service = MavenSettingsService.register(settings.getGradle(),
+                settings.getProviders());
+
+        // Start on the default files while the settings script is evaluated
+        RepositoryConfigurer.prefetch(service, extension, settings.getProviders());
+
+        settings.getGradle().settingsEvaluated(s -> {
+            // The report and export tasks live in the root project. The isolated action only captures the
+            // resolved files, not the extension.
+            SettingsFiles files = RepositoryConfigurer.resolveFiles(extension);
+            s.getGradle().getLifecycle().beforeProject(project -> {
+                if (project.getPath().equals(":")) {
+                    Provider<MavenSettingsService> projectService = MavenSettingsService.register(
+                            project.getGradle(), project.getProviders());
+                    MavenSettingsReportTask.register(project, projectService);
+                    MavenSettingsSnapshotTask.register(project, projectService, files);
+                }
+            });
+
+            try {
+                loadAndApplySettings(s, extension, service);
+            } catch (Exception e) {
+                LOGGER.error("Failed to load Maven settings", e);
+            }
+        });
+    }
+
+    private void loadAndApplySettings(Settings settings, MavenSettingsExtension extension,
+                                      Provider<MavenSettingsService> service) {
+        RepositoryConfigurer configurer = new RepositoryConfigurer(service, extension, settings.getProviders(),
+                getBuildFeatures().getConfigurationCache().getActive().get(), LOGGER);
+
+        // 1. Proxies, HTTP timeouts and retries
+        configurer.configureProxies();
+        configurer.configureTransport();
+
+        // 2. Repositories from Profiles, shared by all projects
+        RepositoryHandler sharedRepos = settings.getDependencyResolutionManagement().getRepositories();
+        configurer.configureRepositories(sharedRepos);
+        configurer.mirrorDeclaredRepositories(sharedRepos);
+
+        // 3. Plugin repositories. Gradle only falls back to the Plugin Portal while this handler is empty,
+        // so keep it explicitly when nothing else was declared.
+        RepositoryHandler pluginRepos = settings.getPluginManagement().getRepositories();
+        if (pluginRepos.isEmpty()) {
+            pluginRepos.gradlePluginPortal();
+        }
+        configurer.configureRepositories(pluginRepos);
+        configurer.mirrorDeclaredRepositories(pluginRepos);
+
+        // 4. Repositories declared by the projects themselves go through the mirrors as well
+        MirrorRewriter rewriter = configurer.mirrorRewriter();
+        if (rewriter != null) {
+            settings.getGradle().getLifecycle().beforeProject(rewriter::attachTo);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package io.github;
+
+import org.gradle.api.artifacts.dsl.RepositoryHandler;
+import org.gradle.api.artifacts.repositories.ArtifactRepository;
+import org.gradle.api.artifacts.repositories.MavenArtifactRepository;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
+
+import io.github.extension.MavenSettingsExtension;
+import io.github.metrics.Phase;
+import io.github.mirror.MirrorRewriter;
+import io.github.metrics.SettingsMetrics;
+import io.github.plan.RepositoryPlan;
+import io.github.plan.ResolvedProxy;
+import io.github.plan.ResolvedRepository;
+import io.github.plan.ServerCredentials;
+import io.github.probe.ProbeResult;
+import io.github.probe.RepositoryOrder;
+import io.github.proxy.ProxySelection;
+import io.github.routing.GroupRoutes;
+import io.github.service.ServerAuthentication;
+import io.github.service.MavenSettingsService;
+import io.github.service.SettingsFiles;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies the resolved Maven settings to Gradle repository handlers.
+ * Shared by the project and settings plugins.
+ */
+class RepositoryConfigurer {
+
+    static final String LOCAL_REPOSITORY_NAME = "mavenSettingsLocal";
+
+    private final Provider<MavenSettingsService> serviceProvider;
+    private final MavenSettingsService service;
+    private final MavenSettingsExtension extension;
+    private final SettingsFiles files;
+    private final RepositoryPlan plan;
+    private final ProviderFactory providers;
+    private final Provider<String> userHome;
+    private final boolean configurationCache;
+    private final Logger logger;
+    private final Set<ArtifactRepository> registered = Collections.newSetFromMap(new IdentityHashMap<>());
+    private List<ResolvedRepository> repositories;
+
+    RepositoryConfigurer(Provider<MavenSettingsService> serviceProvider, MavenSettingsExtension extension,
+                         ProviderFactory providers, boolean configurationCache, Logger logger) {
+        this.serviceProvider = serviceProvider;
+        this.service = serviceProvider.get();
+        this.extension = extension;
+        this.files = resolveFiles(extension);
+        // Registers the settings files as a configuration cache input before reading them
+        service.trackInputs(files, providers);
+        this.plan = service.getPlan(files);
+        this.providers = providers;
+        this.userHome = providers.systemProperty("user.home");
+        this.configurationCache = configurationCache;
+        this.logger = logger;
+    }
+
+    /**
+     * Starts loading the settings files the extension currently points to, so the work overlaps with the
+     * evaluation of the build script. Does nothing unless prefetching is enabled.
+     */
+    static void prefetch(Provider<MavenSettingsService> service, MavenSettingsExtension extension,
+                         ProviderFactory providers) {
+        // Checked first, so builds without prefetching do not create the service this early
+        if (MavenSettingsService.prefetchEnabled(providers).get()) {
+            service.get().prefetch(resolveFiles(extension));
+        }
+    }
+
+    static SettingsFiles resolveFiles(MavenSettingsExtension extension) {
+        // Defaults under ~/.m2 are conventions of the extension
+        return new SettingsFiles(extension.getUserSettingsFile().getAsFile().getOrNull(),
+                extension.getGlobalSettingsFile().getAsFile().getOrNull(),
+                extension.getSecuritySettingsFile().getAsFile().getOrNull(),
+                extension.getSnapshotFile().getAsFile().getOrNull());
+    }
+
+    void configureProxies() {
+        if (plan.getProxies().isEmpty()) {
+            return;
+        }
+        // Gradle only takes proxies from system properties. Set for this build only, they would be missing when
+        // the configuration cache entry is reused, so they are left to gradle.properties then
+        ProxySelection proxies;
+        if (configurationCache) {
+            service.checkProxyProperties(files, name -> providers.systemProperty(name).getOrNull());
+            proxies = service.getProxies(files);
+        } else {
+            proxies = service.applyProxies(files);
+        }
+        for (ResolvedRepository repository : plan.getRepositories()) {
+            ResolvedProxy proxy = proxies.forUrl(repository.getUrl());
+            if (proxy != null) {
+                logger.info("Maven repository '{}' is reached through proxy '{}' ({}:{})", repository.getId(),
+                        proxy.getId(), proxy.getHost(), proxy.getPort());
+            } else {
+                logger.info("Maven repository '{}' is reached directly", repository.getId());
+            }
+        }
+    }
+
+    void configureTransport() {
+        service.checkTransport(plan);
+    }
+
+    @SuppressWarnings("try")
+    void configureRepositories(RepositoryHandler gradleRepos) {
+        Map<String, String> routes = extension.getGroupRoutes().get();
+
+        // First, so modules the Maven builds already downloaded are not fetched again
+        if (extension.getUseLocalRepository().get()) {
+            addLocalRepository(gradleRepos);
+        }
+
+        SettingsMetrics metrics = service.getMetrics();
+        try (SettingsMetrics.Span span = metrics.start(Phase.REGISTRATION)) {
+            for (ResolvedRepository repository : repositories()) {
+                MavenArtifactRepository repo = addRepository(gradleRepos, repository);
+                routeGroups(gradleRepos, repo, GroupRoutes.routedTo(repository.getId(), routes));
+            }
+        }
+        metrics.add(SettingsMetrics.Counter.REPOSITORIES_REGISTERED, repositories().size());
+    }
+
+    /**
+     * The repositories to register, probed and reordered by latency if enabled.
+     */
+    private List<ResolvedRepository> repositories() {
+        if (repositories == null) {
+            repositories = extension.getProbeRepositories().get() ? probedRepositories() : plan.getRepositories();
+        }
+        return repositories;
+    }
+
+    private List<ResolvedRepository> probedRepositories() {
+        List<String> urls = new ArrayList<>();
+        for (ResolvedRepository repository : plan.getRepositories()) {
+            urls.add(repository.getUrl());
+        }
+        Map<String, ProbeResult> probes = service.probe(urls, extension.getProbeTimeout().get(),
+                service.getProxies(files));
+
+        // Probes are not configuration cache inputs: a repository skipped while it was down would stay skipped
+        // for as long as the cache entry is reused
+        boolean skipUnreachable = extension.getSkipUnreachableRepositories().get();
+        if (skipUnreachable && configurationCache) {
+            logger.warn("mavenSettings.skipUnreachableRepositories is ignored with the configuration cache, "
+                    + "unreachable Maven repositories are only reported");
+            skipUnreachable = false;
+        }
+        List<ResolvedRepository> reachable = new ArrayList<>();
+        for (ResolvedRepository repository : plan.getRepositories()) {
+            ProbeResult probe = probes.get(repository.getUrl());
+            if (probe.isReachable()) {
+                logger.info("Maven repository '{}' answered in {} ms", repository.getId(),
+                        probe.getLatencyNanos() / 1_000_000);
+                reachable.add(repository);
+            } else if (skipUnreachable) {
+                logger.warn("Maven repository '{}' ({}) is unreachable ({}), skipping it", repository.getId(),
+                        repository.getUrl(), probe.getFailure());
+            } else {
+                logger.warn("Maven repository '{}' ({}) is unreachable ({})", repository.getId(),
+                        repository.getUrl(), probe.getFailure());
+                reachable.add(repository);
+            }
+        }
+
+        List<ResolvedRepository> ordered = RepositoryOrder.order(reachable, probes,
+                extension.getOrderInsensitiveGroups().get());
+        if (!ordered.equals(reachable)) {
+            List<String> ids = new ArrayList<>();
+            ordered.forEach(repository -> ids.add(repository.getId()));
+            logger.info("Maven repositories reordered by latency: {}", ids);
+        }
+        return ordered;
+    }
+
+    /**
+     * Returns the rewriter that routes repositories declared in scripts through the settings.xml mirrors, or
+     * {@code null} if they are left alone.
+     */
+    MirrorRewriter mirrorRewriter() {
+        return extension.getMirrorDeclaredRepositories().get() && !plan.getMirrors().isEmpty()
+                ? new MirrorRewriter(files, plan.getMirrors())
+                : null;
+    }
+
+    /**
+     * Routes the repositories of the handler that this configurer did not register through the settings.xml
+     * mirrors, including those added later.
+     */
+    void mirrorDeclaredRepositories(RepositoryHandler gradleRepos) {
+        MirrorRewriter rewriter = mirrorRewriter();
+        if (rewriter != null) {
+            rewriter.rewrite(gradleRepos, serviceProvider, logger, registered);
+        }
+    }
+
+    private void addLocalRepository(RepositoryHandler gradleRepos) {
+        File root = plan.getLocalRepository() != null
+                ? new File(plan.getLocalRepository())
+                : new File(userHome.get(), ".m2/repository");
+        Set<String> modules = service.getLocalModules(root, providers);
+        if (modules.isEmpty()) {
+            // Without any included module, the content filter would let every lookup through
+            logger.info("Maven local repository {} does not exist or holds no module, not registering it", root);
+            return;
+        }
+        // Only the indexed modules are looked up. A mavenLocal() repository also treats a module whose artifacts
+        // are missing (a pom-only directory, or a failed download) as absent, so the next repository serves it
+        registered.add(gradleRepos.mavenLocal(repo -> {
+            repo.setName(LOCAL_REPOSITORY_NAME);
+            repo.setUrl(root.toURI());
+            repo.content(content -> {
+                for (String module : modules) {
+                    int colon = module.indexOf(':');
+                    content.includeModule(module.substring(0, colon), module.substring(colon + 1));
+                }
+            });
+        }));
+    }
+
+    private MavenArtifactRepository addRepository(RepositoryHandler gradleRepos, ResolvedRepository repository) {
+        ServerCredentials server = repository.getCredentials();
+        if (repository.getSourceIds().size() > 1) {
+            logger.info("Maven repositories {} resolve to {}, registering them once as '{}'",
+                    repository.getSourceIds(), repository.getUrl(), repository.getId());
+        }
+
+        MavenArtifactRepository added = gradleRepos.maven(repo -> {
+            repo.setName(repository.getId());
+            repo.setUrl(repository.getUrl());
+
+            if (server != null) {
+                ServerAuthentication.attachTo(repo, serviceProvider, files, server, logger);
+            }
+        });
+        registered.add(added);
+        return added;
+    }
+
+    private void routeGroups(RepositoryHandler gradleRepos, MavenArtifactRepository repo, Set<String> groups) {
+        if (groups.isEmpty()) {
+            return;
+        }
+        // Exclusive content: the routed groups are only looked up in this repository, and nowhere else
+        logger.info("Routing {} group(s) exclusively to '{}'", groups.size(), repo.getName());
+        gradleRepos.exclusiveContent(exclusive -> exclusive
+                .forRepositories(repo)
+                .filter(content -> groups.forEach(content::includeGroup)));
+    }
+}
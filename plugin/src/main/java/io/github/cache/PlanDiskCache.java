@@ -0,0 +1,217 @@
+package io.github.cache;
+
+import io.github.plan.PlanSecrets;
+import io.github.plan.RepositoryPlan;
+import io.github.plan.RepositoryPlanCodec;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of resolved {@link RepositoryPlan}s shared by every daemon using the same Gradle user home.
+ * <p>
+ * Entries are immutable and named after the content hash of the settings files they were built from, so
+ * there is nothing to invalidate: editing settings.xml simply produces a new key. Writers publish entries
+ * with an atomic rename, which lets several daemons read and write the directory concurrently without
+ * locking. Unreadable entries (partial writes from a crashed process, another format version) are treated
+ * as misses.
+ * <p>
+ * Passwords are stored exactly as written in settings.xml; encrypted values stay encrypted. Secrets that came
+ * from {@code ${env.*}} expressions are stored as the expression again and interpolated when the entry is loaded,
+ * so values injected through the environment never reach the disk.
+ * <p>
+ * Every stored entry prunes the directory: entries unused for {@value #MAX_AGE_DAYS} days, and the least
+ * recently used ones beyond {@value #MAX_ENTRIES}, are deleted. Loading an entry marks it as used.
+ */
+public class PlanDiskCache {
+
+    static final int MAX_ENTRIES = 32;
+
+    static final int MAX_AGE_DAYS = 30;
+
+    private static final Logger LOGGER = Logging.getLogger(PlanDiskCache.class);
+
+    private static final Pattern ENV_EXPRESSION = Pattern.compile("\\$\\{env\\.([^}]+)}");
+
+    private final Path directory;
+    private final int maxEntries;
+    private final Duration maxAge;
+
+    public PlanDiskCache(Path directory) {
+        this(directory, MAX_ENTRIES, Duration.ofDays(MAX_AGE_DAYS));
+    }
+
+    PlanDiskCache(Path directory, int maxEntries, Duration maxAge) {
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Returns the cached plan for the given key, or {@code null} if there is no usable entry.
+     */
+    public RepositoryPlan load(String key) {
+        return load(key, System::getenv);
+    }
+
+    /**
+     * Returns the cached plan for the given key, with secrets interpolated from the given environment.
+     */
+    public RepositoryPlan load(String key, Function<String, String> environment) {
+        Path entry = entryFor(key);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            RepositoryPlan plan = RepositoryPlanCodec.read(in);
+            touch(entry);
+            return PlanSecrets.replace(plan, (name, value) -> interpolate(value, environment));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.debug("Ignoring unreadable Maven settings cache entry {}", entry, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a plan. Failures are logged and otherwise ignored, as the cache is only an optimization.
+     */
+    public void store(String key, RepositoryPlan plan) {
+        store(key, plan, Map.of());
+    }
+
+    /**
+     * Stores a plan built from settings referencing the given environment variables. Secrets containing the
+     * value of one of them are stored with the {@code ${env.*}} expression instead. The key must cover the
+     * values, so loading the entry interpolates the same ones back.
+     */
+    public void store(String key, RepositoryPlan plan, Map<String, String> environment) {
+        RepositoryPlan stored = environment.isEmpty()
+                ? plan
+                : PlanSecrets.replace(plan, (name, value) -> unInterpolate(value, environment));
+        write(entryFor(key), key, stored);
+        prune();
+    }
+
+    private void write(Path entry, String key, RepositoryPlan plan) {
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = createTempFile(key);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                RepositoryPlanCodec.write(plan, out);
+            }
+            try {
+                Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Failed to write Maven settings cache entry {}", entry, e);
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Best effort
+                }
+            }
+        }
+    }
+
+    private void prune() {
+        List<Path> entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(".bin")).forEach(entries::add);
+        } catch (IOException e) {
+            LOGGER.debug("Failed to list Maven settings cache entries in {}", directory, e);
+            return;
+        }
+        Map<Path, FileTime> used = new HashMap<>();
+        for (Path entry : entries) {
+            try {
+                used.put(entry, Files.getLastModifiedTime(entry));
+            } catch (IOException e) {
+                used.put(entry, FileTime.fromMillis(0));
+            }
+        }
+        entries.sort(Comparator.comparing(used::get).reversed());
+        FileTime oldest = FileTime.from(Instant.now().minus(maxAge));
+        for (int i = 0; i < entries.size(); i++) {
+            Path entry = entries.get(i);
+            if (i >= maxEntries || used.get(entry).compareTo(oldest) < 0) {
+                try {
+                    Files.deleteIfExists(entry);
+                } catch (IOException e) {
+                    LOGGER.debug("Failed to delete Maven settings cache entry {}", entry, e);
+                }
+            }
+        }
+    }
+
+    private static void touch(Path entry) {
+        try {
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            // Only makes the entry look older to pruning
+        }
+    }
+
+    // Longest values first, so a value containing another one is replaced as a whole
+    private static String unInterpolate(String value, Map<String, String> environment) {
+        List<Map.Entry<String, String>> variables = new ArrayList<>(environment.entrySet());
+        variables.sort(Comparator.comparing((Map.Entry<String, String> variable) -> variable.getValue().length())
+                .reversed());
+        String result = value;
+        for (Map.Entry<String, String> variable : variables) {
+            if (!variable.getValue().isEmpty()) {
+                result = result.replace(variable.getValue(), "${env." + variable.getKey() + "}");
+            }
+        }
+        return result;
+    }
+
+    private static String interpolate(String value, Function<String, String> environment) {
+        Matcher matcher = ENV_EXPRESSION.matcher(value);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String variable = environment.apply(matcher.group(1));
+            matcher.appendReplacement(result, Matcher.quoteReplacement(variable != null ? variable : matcher.group()));
+        }
+        return matcher.appendTail(result).toString();
+    }
+
+    private Path entryFor(String key) {
+        return directory.resolve(key + ".v" + RepositoryPlanCodec.VERSION + ".bin");
+    }
+
+    private Path createTempFile(String key) throws IOException {
+        // Entries may hold plain-text passwords copied from settings.xml, keep them private to the owner
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            return Files.createTempFile(directory, key, ".tmp",
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        }
+        return Files.createTempFile(directory, key, ".tmp");
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.crypto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Small thread-safe LRU map. Values are computed outside the lock, so a slow computation
+ * for one key never blocks lookups of other keys.
+ */
+final class BoundedCache<K, V> {
+
+    private final Map<K, V> entries;
+
+    BoundedCache(int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    V get(K key, Function<K, V> loader) {
+        synchronized (entries) {
+            V value = entries.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        V value = loader.apply(key);
+        synchronized (entries) {
+            V existing = entries.putIfAbsent(key, value);
+            return existing != null ? existing : value;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.crypto;
+
+/**
+ * Memoized master and server password decryptions, which {@link MavenPasswordDecryptor} instances can share.
+ * <p>
+ * Entries are keyed by the encrypted master password as well as the encrypted value, so a cache shared by
+ * decryptors created at different times, even for a security settings file that changed in between, never
+ * returns a value decrypted with another master password.
+ */
+public final class DecryptionCache {
+
+    final BoundedCache<String, String> masterPasswords = new BoundedCache<>(16);
+    final BoundedCache<String, DecryptionResult> passwords = new BoundedCache<>(1024);
+}
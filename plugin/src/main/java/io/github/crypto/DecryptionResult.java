@@ -0,0 +1,60 @@
+package io.github.crypto;
+
+/**
+ * Outcome of decrypting a value from settings.xml.
+ */
+public final class DecryptionResult {
+
+    public enum Status {
+        /** The value was not encrypted and is returned as is. */
+        PLAIN,
+        /** The value was encrypted and has been decrypted. */
+        DECRYPTED,
+        /** The value looked encrypted but could not be decrypted. */
+        FAILED
+    }
+
+    private final Status status;
+    private final String value;
+    private final String failure;
+
+    private DecryptionResult(Status status, String value, String failure) {
+        this.status = status;
+        this.value = value;
+        this.failure = failure;
+    }
+
+    static DecryptionResult plain(String value) {
+        return new DecryptionResult(Status.PLAIN, value, null);
+    }
+
+    static DecryptionResult decrypted(String value) {
+        return new DecryptionResult(Status.DECRYPTED, value, null);
+    }
+
+    static DecryptionResult failed(String rawValue, String failure) {
+        return new DecryptionResult(Status.FAILED, rawValue, failure);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * The decrypted value, or the value as written in settings.xml if decryption failed.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Why decryption failed, or {@code null} if it did not.
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    public boolean isFailed() {
+        return status == Status.FAILED;
+    }
+}
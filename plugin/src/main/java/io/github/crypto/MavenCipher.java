@@ -0,0 +1,70 @@
+package io.github.crypto;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Decrypts values in the format written by {@code mvn --encrypt-password} and {@code --encrypt-master-password},
+ * using only {@code javax.crypto}.
+ * <p>
+ * This is the Plexus PBE format: Base64 of an 8 byte salt, a padding length byte and the AES/CBC cipher text,
+ * with the AES key and IV taken from the SHA-256 digest of the password followed by the salt. Derived keys are
+ * cached per password and salt by each instance. The class is only loaded once a value actually needs decrypting.
+ */
+final class MavenCipher {
+
+    private static final int SALT_SIZE = 8;
+    private static final int SPICE_SIZE = 16;
+
+    private final BoundedCache<String, byte[]> keys = new BoundedCache<>(1024);
+
+    /**
+     * Decrypts an undecorated value (without the surrounding braces).
+     */
+    String decrypt(String encrypted, String password) throws MavenCipherException {
+        byte[] bytes;
+        try {
+            // Like the Plexus decoder, skips characters outside the Base64 alphabet
+            bytes = Base64.getMimeDecoder().decode(encrypted);
+        } catch (IllegalArgumentException e) {
+            throw new MavenCipherException("not a Base64 value", e);
+        }
+        if (bytes.length <= SALT_SIZE) {
+            throw new MavenCipherException("value is too short");
+        }
+        byte[] salt = Arrays.copyOf(bytes, SALT_SIZE);
+        int length = bytes.length - SALT_SIZE - 1 - bytes[SALT_SIZE];
+        if (bytes[SALT_SIZE] < 0 || length <= 0) {
+            throw new MavenCipherException("invalid padding length");
+        }
+
+        byte[] keyAndIv = keys.get(password + '\u0000' + Base64.getEncoder().encodeToString(salt),
+                key -> deriveKeyAndIv(password, salt));
+        try {
+            Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+            cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(keyAndIv, 0, SPICE_SIZE, "AES"),
+                    new IvParameterSpec(keyAndIv, SPICE_SIZE, SPICE_SIZE));
+            return new String(cipher.doFinal(bytes, SALT_SIZE + 1, length), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new MavenCipherException(e.getMessage(), e);
+        }
+    }
+
+    private static byte[] deriveKeyAndIv(String password, byte[] salt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(password.getBytes(StandardCharsets.UTF_8));
+            digest.update(salt);
+            // A SHA-256 digest is exactly the 16 byte key followed by the 16 byte IV
+            return digest.digest();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.crypto;
+
+/**
+ * Raised when an encrypted value or the security settings file cannot be read or decrypted.
+ */
+class MavenCipherException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    MavenCipherException(String message) {
+        super(message);
+    }
+
+    MavenCipherException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
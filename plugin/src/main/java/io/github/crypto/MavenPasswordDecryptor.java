@@ -1,40 +1,155 @@
 package io.github.crypto;
 
-import org.sonatype.plexus.components.cipher.DefaultPlexusCipher;
-import org.sonatype.plexus.components.sec.dispatcher.DefaultSecDispatcher;
+import io.github.metrics.Phase;
+import io.github.metrics.SettingsMetrics;
+import io.github.metrics.SettingsMetrics.Counter;
 
 import java.io.File;
-
-// We need to implement a SecDispatcher that can load from a specific file.
-// The standard DefaultSecDispatcher often relies on Plexus container injection which we don't have fully here.
-// Let's try to manually construct a basic decryptor if possible, or use the library's helpers.
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Helper to decrypt passwords.
- * Note: Accessing Plexus components without a container can be tricky.
- * We might need to manually configure the DefaultSecDispatcher.
+ * <p>
+ * The security settings file is passed explicitly instead of through the {@code settings.security} system
+ * property, so several builds or projects can decrypt concurrently with different files. Master passwords are
+ * decrypted once per distinct {@code <master>} value and decrypted passwords are memoized in a bounded cache,
+ * which makes repeated lookups of the same server password free. The caches belong to the instance unless a
+ * {@link DecryptionCache} is passed in: the build service keeps one decryptor per security settings file for the
+ * duration of a build, sharing the daemon's cache when it keeps the settings between builds.
+ * <p>
+ * Decryption is implemented by {@link MavenCipher} on top of {@code javax.crypto}; plain values never load it.
  */
 public class MavenPasswordDecryptor {
 
-    private final DefaultSecDispatcher secDispatcher;
+    // Passphrase Maven uses to protect the master password in settings-security.xml
+    private static final String MASTER_PASSPHRASE = "settings.security";
+
+    // Same decoration as Plexus: the value between the first unescaped braces
+    private static final Pattern ENCRYPTED_VALUE = Pattern.compile(".*?[^\\\\]?\\{(.*?[^\\\\])\\}.*");
+
+    private final File securitySettingsFile;
+    private final SettingsMetrics metrics;
+    private final BoundedCache<String, String> masterPasswords;
+    private final BoundedCache<String, DecryptionResult> passwords;
+    private MavenCipher cipher;
+    private String encryptedMaster;
 
     public MavenPasswordDecryptor(File securitySettingsFile) {
-        DefaultPlexusCipher cipher = new DefaultPlexusCipher();
-        this.secDispatcher = new DefaultSecDispatcher(cipher);
+        this(securitySettingsFile, new SettingsMetrics());
+    }
 
-        if (securitySettingsFile != null) {
-            System.setProperty(DefaultSecDispatcher.SYSTEM_PROPERTY_SEC_LOCATION,
-                    securitySettingsFile.getAbsolutePath());
-        }
+    /**
+     * Creates a decryptor that records the time spent in actual (not memoized) decryptions.
+     */
+    public MavenPasswordDecryptor(File securitySettingsFile, SettingsMetrics metrics) {
+        this(securitySettingsFile, metrics, new DecryptionCache());
+    }
+
+    /**
+     * Creates a decryptor that reuses, and adds to, the decryptions of the given cache.
+     */
+    public MavenPasswordDecryptor(File securitySettingsFile, SettingsMetrics metrics, DecryptionCache cache) {
+        this.securitySettingsFile = securitySettingsFile;
+        this.metrics = metrics;
+        this.masterPasswords = cache.masterPasswords;
+        this.passwords = cache.passwords;
     }
 
+    /**
+     * Decrypts a password, failing fast if it cannot be decrypted.
+     */
     public String decrypt(String encryptedPassword) {
+        DecryptionResult result = tryDecrypt(encryptedPassword);
+        if (result.isFailed()) {
+            throw new RuntimeException("Failed to decrypt password: " + result.getFailure());
+        }
+        return result.getValue();
+    }
+
+    /**
+     * Decrypts a password, reporting failures in the result instead of throwing.
+     * Values that are not encrypted are returned unchanged.
+     */
+    public DecryptionResult tryDecrypt(String password) {
+        if (unDecorate(password) == null) {
+            return DecryptionResult.plain(password);
+        }
+        String master;
+        try {
+            master = readEncryptedMaster();
+        } catch (MavenCipherException e) {
+            return DecryptionResult.failed(password, e.getMessage());
+        }
+        return passwords.get(master + '\u0000' + password, key -> decryptWithMaster(master, password));
+    }
+
+    /**
+     * Reads and decrypts the master password ahead of time if the given password is encrypted. Failures are
+     * ignored here and reported by the decryption that actually needs it.
+     */
+    public void prepare(String password) {
+        if (unDecorate(password) == null) {
+            return;
+        }
         try {
-            return secDispatcher.decrypt(encryptedPassword);
-        } catch (Exception e) {
-            // Fallback or log warning? For now runtime exception to fail fast if config is
-            // wrong.
-            throw new RuntimeException("Failed to decrypt password", e);
+            masterPasswords.get(readEncryptedMaster(), this::decryptMaster);
+        } catch (MavenCipherException | IllegalStateException e) {
+            // Reported on use
+        }
+    }
+
+    @SuppressWarnings("try")
+    private DecryptionResult decryptWithMaster(String encryptedMaster, String password) {
+        try {
+            String master = masterPasswords.get(encryptedMaster, this::decryptMaster);
+            try (SettingsMetrics.Span span = metrics.start(Phase.SERVER_DECRYPTION)) {
+                String decrypted = cipher().decrypt(unDecorate(password), master);
+                metrics.increment(Counter.PASSWORDS_DECRYPTED);
+                return DecryptionResult.decrypted(decrypted);
+            }
+        } catch (IllegalStateException e) {
+            return DecryptionResult.failed(password, e.getMessage());
+        } catch (MavenCipherException e) {
+            return DecryptionResult.failed(password, "invalid encrypted value (" + e.getMessage() + ")");
+        }
+    }
+
+    @SuppressWarnings("try")
+    private String decryptMaster(String encryptedMaster) {
+        try (SettingsMetrics.Span span = metrics.start(Phase.MASTER_DECRYPTION)) {
+            String undecorated = unDecorate(encryptedMaster);
+            return cipher().decrypt(undecorated != null ? undecorated : encryptedMaster, MASTER_PASSPHRASE);
+        } catch (MavenCipherException e) {
+            throw new IllegalStateException("cannot decrypt master password (" + e.getMessage() + ")", e);
+        }
+    }
+
+    // Created on first use, so plain passwords never load the cipher
+    private synchronized MavenCipher cipher() {
+        if (cipher == null) {
+            cipher = new MavenCipher();
+        }
+        return cipher;
+    }
+
+    private synchronized String readEncryptedMaster() throws MavenCipherException {
+        if (encryptedMaster == null) {
+            // Follows <relocation> elements
+            encryptedMaster = SecuritySettings.readMaster(securitySettingsFile);
+        }
+        return encryptedMaster;
+    }
+
+    /**
+     * Returns the encrypted part of a decorated value such as {@code {...}}, or {@code null} if the value is
+     * not encrypted.
+     */
+    private static String unDecorate(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
         }
+        Matcher matcher = ENCRYPTED_VALUE.matcher(value);
+        return matcher.matches() || matcher.find() ? matcher.group(1) : null;
     }
 }
@@ -0,0 +1,75 @@
+package io.github.crypto;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Reads the encrypted master password from a settings-security.xml file, following {@code <relocation>}
+ * elements like Maven does.
+ */
+final class SecuritySettings {
+
+    private SecuritySettings() {
+    }
+
+    static String readMaster(File file) throws MavenCipherException {
+        if (file == null || !file.isFile()) {
+            throw new MavenCipherException("security settings file " + file + " does not exist");
+        }
+        Set<String> visited = new HashSet<>();
+        String location = file.getAbsolutePath();
+        while (true) {
+            if (!visited.add(location)) {
+                throw new MavenCipherException("security settings relocation loop at " + location);
+            }
+            String[] masterAndRelocation = read(location);
+            if (masterAndRelocation[1] == null) {
+                if (masterAndRelocation[0] == null) {
+                    throw new MavenCipherException("master password is not set in " + location);
+                }
+                return masterAndRelocation[0];
+            }
+            location = masterAndRelocation[1];
+        }
+    }
+
+    private static String[] read(String location) throws MavenCipherException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        try (InputStream in = location.contains("://")
+                ? new URL(location).openStream()
+                : Files.newInputStream(new File(location).toPath())) {
+            XMLStreamReader xml = factory.createXMLStreamReader(in);
+            String[] masterAndRelocation = new String[2];
+            int depth = 0;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (depth == 2 && "master".equals(xml.getLocalName())) {
+                        masterAndRelocation[0] = xml.getElementText().trim();
+                        depth--;
+                    } else if (depth == 2 && "relocation".equals(xml.getLocalName())) {
+                        masterAndRelocation[1] = xml.getElementText().trim();
+                        depth--;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+            return masterAndRelocation;
+        } catch (IOException | XMLStreamException e) {
+            throw new MavenCipherException("cannot read security settings " + location + " (" + e.getMessage() + ")", e);
+        }
+    }
+}
@@ -1,15 +1,41 @@
 package io.github.extension;
 
 import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.time.Duration;
+import java.util.List;
 
 /**
  * Extension for configuring the Maven Settings plugin.
  */
 public abstract class MavenSettingsExtension {
 
+    @Inject
+    public MavenSettingsExtension(ObjectFactory objects, ProviderFactory providers) {
+        // Derived through providers so the user home is a tracked configuration input
+        Provider<String> userHome = providers.systemProperty("user.home");
+        getUserSettingsFile().convention(objects.fileProperty()
+                .fileProvider(userHome.map(home -> new File(home, ".m2/settings.xml"))));
+        getSecuritySettingsFile().convention(objects.fileProperty()
+                .fileProvider(userHome.map(home -> new File(home, ".m2/settings-security.xml"))));
+        getUseLocalRepository().convention(false);
+        getMirrorDeclaredRepositories().convention(true);
+        getProbeRepositories().convention(false);
+        getProbeTimeout().convention(Duration.ofSeconds(1));
+        getSkipUnreachableRepositories().convention(false);
+    }
+
     /**
      * Path to the global settings.xml file.
-     * Defaults to ~/.m2/settings.xml if not specified.
+     * Not used if not specified.
      */
     public abstract RegularFileProperty getGlobalSettingsFile();
 
@@ -25,4 +51,68 @@ public abstract class MavenSettingsExtension {
      */
     public abstract RegularFileProperty getSecuritySettingsFile();
 
+    /**
+     * Snapshot written by the {@code exportMavenSettingsSnapshot} task. When set, repositories, mirrors and
+     * proxies are loaded from it instead of the settings files, and credentials from the environment variables
+     * it references. Not used if not specified.
+     */
+    public abstract RegularFileProperty getSnapshotFile();
+
+    /**
+     * Whether to register the Maven local repository ({@code <localRepository>} from settings.xml, or
+     * {@code ~/.m2/repository}) ahead of the other repositories. Gradle only looks up the modules the local
+     * repository actually contains, as found by an index kept under the Gradle user home. Defaults to false.
+     */
+    public abstract Property<Boolean> getUseLocalRepository();
+
+    /**
+     * Whether repositories declared in build and settings scripts, such as {@code mavenCentral()} or the Gradle
+     * Plugin Portal, go through the settings.xml mirror that matches them, with the mirror's server credentials.
+     * Defaults to true, as in Maven.
+     */
+    public abstract Property<Boolean> getMirrorDeclaredRepositories();
+
+    /**
+     * Explicit routes from module group to repository id. A routed group is exclusive content of its repository:
+     * no other repository of the build looks it up, so only route groups that a single repository serves entirely.
+     */
+    public abstract MapProperty<String, String> getGroupRoutes();
+
+    /**
+     * Routes a module group to the repository with the given id.
+     */
+    public void routeGroup(String group, String repositoryId) {
+        getGroupRoutes().put(group, repositoryId);
+    }
+
+    /**
+     * Whether to probe the latency of the Maven settings repositories while the build is configured, report
+     * unreachable ones and reorder each {@linkplain #orderInsensitive(String...) order-insensitive group} fastest
+     * first. Defaults to false.
+     */
+    public abstract Property<Boolean> getProbeRepositories();
+
+    /**
+     * How long probing may take in total. Repositories that have not answered by then are unreachable.
+     * Defaults to 1 second.
+     */
+    public abstract Property<Duration> getProbeTimeout();
+
+    /**
+     * Whether unreachable repositories are left out instead of only reported. Defaults to false. Ignored with the
+     * configuration cache, which does not track the probes.
+     */
+    public abstract Property<Boolean> getSkipUnreachableRepositories();
+
+    /**
+     * Groups of repository ids whose relative order does not matter.
+     */
+    public abstract ListProperty<List<String>> getOrderInsensitiveGroups();
+
+    /**
+     * Lets the repositories with the given ids be reordered among themselves by probed latency.
+     */
+    public void orderInsensitive(String... repositoryIds) {
+        getOrderInsensitiveGroups().add(List.of(repositoryIds));
+    }
 }
@@ -0,0 +1,230 @@
+package io.github.local;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Index of the modules present in a Maven local repository.
+ * <p>
+ * A module is present when {@code group/path/artifact/version} holds {@code artifact-version.pom}, {@code .jar}
+ * or {@code .module}. The directory tree is walked on every build, but a directory is only listed again when
+ * its modification time changed since the previous walk; otherwise its sub-directories and whether it holds
+ * artifacts are taken from the state file of the previous walk. Directories modified within the last few
+ * seconds are always listed, as their modification time may not yet reflect every change.
+ */
+public class LocalRepositoryIndex {
+
+    private static final Logger LOGGER = Logging.getLogger(LocalRepositoryIndex.class);
+
+    private static final int MAGIC = 0x4D564E4C; // "MVNL"
+    private static final int VERSION = 1;
+    private static final long RACY_MILLIS = 2_000;
+
+    private final Set<String> modules;
+    private final int listedDirectories;
+    private final int reusedDirectories;
+
+    private LocalRepositoryIndex(Set<String> modules, int listedDirectories, int reusedDirectories) {
+        this.modules = Collections.unmodifiableSet(modules);
+        this.listedDirectories = listedDirectories;
+        this.reusedDirectories = reusedDirectories;
+    }
+
+    /**
+     * Updates the index of the given local repository from the state stored in {@code stateFile}, and stores
+     * the new state there.
+     */
+    public static LocalRepositoryIndex update(Path root, Path stateFile) {
+        Scan scan = new Scan(readState(root, stateFile), System.currentTimeMillis() - RACY_MILLIS);
+        scan.visit(root, "", null);
+        writeState(root, stateFile, scan.state);
+        return new LocalRepositoryIndex(scan.modules, scan.listed, scan.reused);
+    }
+
+    /**
+     * Present modules as {@code group:name}, sorted.
+     */
+    public Set<String> getModules() {
+        return modules;
+    }
+
+    /**
+     * Number of directories listed by the last update.
+     */
+    public int getListedDirectories() {
+        return listedDirectories;
+    }
+
+    /**
+     * Number of directories whose listing was reused from the previous update.
+     */
+    public int getReusedDirectories() {
+        return reusedDirectories;
+    }
+
+    private static final class Directory {
+        final long modified;
+        final List<String> children;
+        final boolean hasArtifacts;
+
+        Directory(long modified, List<String> children, boolean hasArtifacts) {
+            this.modified = modified;
+            this.children = children;
+            this.hasArtifacts = hasArtifacts;
+        }
+    }
+
+    private static final class Scan {
+        final Map<String, Directory> previous;
+        final Map<String, Directory> state = new HashMap<>();
+        final Set<String> modules = new TreeSet<>();
+        final long trustedBefore;
+        int listed;
+        int reused;
+
+        Scan(Map<String, Directory> previous, long trustedBefore) {
+            this.previous = previous;
+            this.trustedBefore = trustedBefore;
+        }
+
+        void visit(Path dir, String path, String parentName) {
+            long modified;
+            try {
+                modified = Files.getLastModifiedTime(dir).toMillis();
+            } catch (IOException e) {
+                return;
+            }
+            Directory directory = previous.get(path);
+            if (directory == null || directory.modified != modified || modified >= trustedBefore) {
+                directory = list(dir, parentName, modified);
+                listed++;
+            } else {
+                reused++;
+            }
+            state.put(path, directory);
+
+            if (directory.hasArtifacts) {
+                // path is group/path/artifact/version
+                int versionSlash = path.lastIndexOf('/');
+                int artifactSlash = versionSlash > 0 ? path.lastIndexOf('/', versionSlash - 1) : -1;
+                if (artifactSlash > 0) {
+                    modules.add(path.substring(0, artifactSlash).replace('/', '.') + ':'
+                            + path.substring(artifactSlash + 1, versionSlash));
+                }
+            }
+            String name = dir.getFileName() != null ? dir.getFileName().toString() : null;
+            for (String child : directory.children) {
+                visit(dir.resolve(child), path.isEmpty() ? child : path + '/' + child, path.isEmpty() ? null : name);
+            }
+        }
+
+        private Directory list(Path dir, String parentName, long modified) {
+            List<String> children = new ArrayList<>();
+            boolean hasArtifacts = false;
+            String name = dir.getFileName().toString();
+            String prefix = parentName + '-' + name;
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path entry : entries) {
+                    String entryName = entry.getFileName().toString();
+                    if (entryName.startsWith(".")) {
+                        continue;
+                    }
+                    if (Files.isDirectory(entry)) {
+                        children.add(entryName);
+                    } else if (parentName != null && entryName.startsWith(prefix)
+                            && (entryName.endsWith(".pom") || entryName.endsWith(".jar")
+                            || entryName.endsWith(".module"))) {
+                        hasArtifacts = true;
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.debug("Could not list {}", dir, e);
+            }
+            Collections.sort(children);
+            return new Directory(modified, children, hasArtifacts);
+        }
+    }
+
+    private static Map<String, Directory> readState(Path root, Path stateFile) {
+        Map<String, Directory> state = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(stateFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !in.readUTF().equals(root.toString())) {
+                return state;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String path = in.readUTF();
+                long modified = in.readLong();
+                boolean hasArtifacts = in.readBoolean();
+                int childCount = in.readInt();
+                List<String> children = new ArrayList<>(childCount);
+                for (int j = 0; j < childCount; j++) {
+                    children.add(in.readUTF());
+                }
+                state.put(path, new Directory(modified, children, hasArtifacts));
+            }
+            return state;
+        } catch (NoSuchFileException e) {
+            return state;
+        } catch (IOException e) {
+            LOGGER.debug("Ignoring unreadable local repository index {}", stateFile, e);
+            return new HashMap<>();
+        }
+    }
+
+    private static void writeState(Path root, Path stateFile, Map<String, Directory> state) {
+        Path temp = null;
+        try {
+            Files.createDirectories(stateFile.getParent());
+            temp = Files.createTempFile(stateFile.getParent(), stateFile.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(root.toString());
+                out.writeInt(state.size());
+                for (Map.Entry<String, Directory> entry : state.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue().modified);
+                    out.writeBoolean(entry.getValue().hasArtifacts);
+                    out.writeInt(entry.getValue().children.size());
+                    for (String child : entry.getValue().children) {
+                        out.writeUTF(child);
+                    }
+                }
+            }
+            try {
+                Files.move(temp, stateFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, stateFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Failed to write local repository index {}", stateFile, e);
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Best effort
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.local;
+
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.ValueSource;
+import org.gradle.api.provider.ValueSourceParameters;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Modules present in a Maven local repository, as {@code group:name}, as a configuration input.
+ * <p>
+ * Obtaining the value updates the persisted {@link LocalRepositoryIndex}. The configuration cache obtains it again
+ * before reusing an entry, so installing or deleting a module invalidates the entry, at the cost of listing the
+ * directories whose modification time changed. A repository that does not exist has no modules.
+ */
+public abstract class LocalRepositoryModules implements ValueSource<List<String>, LocalRepositoryModules.Params> {
+
+    private static final Logger LOGGER = Logging.getLogger(LocalRepositoryModules.class);
+
+    public interface Params extends ValueSourceParameters {
+
+        DirectoryProperty getRepository();
+
+        /**
+         * Where the index of the previous update is kept.
+         */
+        RegularFileProperty getStateFile();
+    }
+
+    @Override
+    public List<String> obtain() {
+        File root = getParameters().getRepository().get().getAsFile();
+        if (!root.isDirectory()) {
+            return List.of();
+        }
+        LocalRepositoryIndex index = LocalRepositoryIndex.update(root.toPath().toAbsolutePath(),
+                getParameters().getStateFile().get().getAsFile().toPath());
+        LOGGER.info("Indexed {} modules in Maven local repository {} ({} directories listed, {} unchanged)",
+                index.getModules().size(), root, index.getListedDirectories(), index.getReusedDirectories());
+        return List.copyOf(index.getModules());
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.metrics;
+
+/**
+ * The timed phases of applying Maven settings.
+ */
+public enum Phase {
+    /** Reading and hashing the settings files to look up the plan. */
+    FILE_READ("File read"),
+    /** Parsing, merging and interpolating settings.xml. */
+    PARSE("XML parse and merge"),
+    /** Decrypting the master password from settings-security.xml. */
+    MASTER_DECRYPTION("Master password decryption"),
+    /** Decrypting server and proxy passwords. */
+    SERVER_DECRYPTION("Server password decryption"),
+    /** Applying mirrors and servers to the profile repositories. */
+    MIRROR_RESOLUTION("Mirror resolution"),
+    /** Updating the index of the local repository. */
+    LOCAL_INDEX("Local repository index"),
+    /** Measuring the latency of repositories. */
+    PROBING("Repository probing"),
+    /** Registering repositories in Gradle. */
+    REGISTRATION("Repository registration");
+
+    private final String label;
+
+    Phase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event emitted for every timed {@link Phase}, so the plugin shows up in recordings of the Gradle daemon.
+ */
+@Name("io.github.mvnsettings.Phase")
+@Label("Maven Settings Phase")
+@Category({"Gradle", "Maven Settings"})
+@Description("A phase of loading Maven settings and applying them to Gradle")
+class PhaseEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+}
@@ -0,0 +1,168 @@
+package io.github.metrics;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timings and counts of the work the plugin does in one build.
+ * <p>
+ * Phases may run concurrently (parallel project configuration), so timings are summed per phase and can add up
+ * to more than the wall-clock time spent. Every timed phase is also emitted as a JFR {@link PhaseEvent}.
+ */
+public final class SettingsMetrics {
+
+    /**
+     * Counted events.
+     */
+    public enum Counter {
+        PLAN_REQUESTS("plan requests"),
+        PLAN_MEMORY_HITS("in-memory plan hits"),
+        PLAN_PREFETCH_HITS("prefetched plan hits"),
+        PLAN_DAEMON_HITS("daemon cache hits"),
+        PLAN_SNAPSHOT_LOADS("snapshot loads"),
+        PLAN_DISK_HITS("disk cache hits"),
+        PLAN_DISK_MISSES("disk cache misses"),
+        PROFILES("active profiles"),
+        REPOSITORIES_DECLARED("repositories before mirroring"),
+        REPOSITORIES_RESOLVED("repositories after mirroring"),
+        REPOSITORIES_REGISTERED("repositories registered"),
+        PASSWORDS_DECRYPTED("passwords decrypted");
+
+        private final String label;
+
+        Counter(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final Map<Phase, LongAdder> nanos = new EnumMap<>(Phase.class);
+    private final Map<Phase, LongAdder> calls = new EnumMap<>(Phase.class);
+    private final Map<Counter, AtomicLong> counters = new EnumMap<>(Counter.class);
+
+    public SettingsMetrics() {
+        for (Phase phase : Phase.values()) {
+            nanos.put(phase, new LongAdder());
+            calls.put(phase, new LongAdder());
+        }
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new AtomicLong());
+        }
+    }
+
+    /**
+     * Starts timing a phase; close the returned span when it ends.
+     */
+    public Span start(Phase phase) {
+        return new Span(phase);
+    }
+
+    public void increment(Counter counter) {
+        add(counter, 1);
+    }
+
+    public void add(Counter counter, long delta) {
+        counters.get(counter).addAndGet(delta);
+    }
+
+    public long get(Counter counter) {
+        return counters.get(counter).get();
+    }
+
+    public long getNanos(Phase phase) {
+        return nanos.get(phase).sum();
+    }
+
+    public long getCalls(Phase phase) {
+        return calls.get(phase).sum();
+    }
+
+    /**
+     * Human-readable report.
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder("Maven settings report\n\n");
+        if (get(Counter.PLAN_REQUESTS) == 0) {
+            text.append("Maven settings were not loaded in this build (configuration cache hit).\n");
+        }
+        long total = 0;
+        for (Phase phase : Phase.values()) {
+            total += getNanos(phase);
+            text.append(String.format(Locale.ROOT, "  %-28s %10.3f ms  (%d)%n", phase.getLabel(),
+                    getNanos(phase) / 1e6, getCalls(phase)));
+        }
+        text.append(String.format(Locale.ROOT, "  %-28s %10.3f ms%n%n", "Total", total / 1e6));
+        for (Counter counter : Counter.values()) {
+            text.append(String.format(Locale.ROOT, "  %-28s %d%n", counter.getLabel(), get(counter)));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Machine-readable report, with phase timings in nanoseconds.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n  \"phases\": {");
+        String separator = "\n";
+        for (Phase phase : Phase.values()) {
+            json.append(separator).append("    \"").append(key(phase.name())).append("\": {\"nanos\": ")
+                    .append(getNanos(phase)).append(", \"calls\": ").append(getCalls(phase)).append('}');
+            separator = ",\n";
+        }
+        json.append("\n  },\n  \"counters\": {");
+        separator = "\n";
+        for (Counter counter : Counter.values()) {
+            json.append(separator).append("    \"").append(key(counter.name())).append("\": ").append(get(counter));
+            separator = ",\n";
+        }
+        return json.append("\n  }\n}\n").toString();
+    }
+
+    // PLAN_DISK_HITS -> planDiskHits
+    private static String key(String name) {
+        StringBuilder key = new StringBuilder();
+        boolean upper = false;
+        for (char c : name.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else {
+                key.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * A running phase, timed by a try-with-resources block. The span is never referenced inside the block, so
+     * methods using one suppress javac's {@code try} lint.
+     */
+    public final class Span implements AutoCloseable {
+
+        private final Phase phase;
+        private final long startNanos = System.nanoTime();
+        private final PhaseEvent event = new PhaseEvent();
+
+        private Span(Phase phase) {
+            this.phase = phase;
+            event.begin();
+        }
+
+        @Override
+        public void close() {
+            nanos.get(phase).add(System.nanoTime() - startNanos);
+            calls.get(phase).increment();
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = phase.getLabel();
+                event.commit();
+            }
+        }
+    }
+}
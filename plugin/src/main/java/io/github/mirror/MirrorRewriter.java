@@ -0,0 +1,94 @@
+package io.github.mirror;
+
+import io.github.plan.MirrorSelector;
+import io.github.plan.ResolvedMirror;
+import io.github.service.MavenSettingsService;
+import io.github.service.ServerAuthentication;
+import io.github.service.SettingsFiles;
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.dsl.RepositoryHandler;
+import org.gradle.api.artifacts.repositories.ArtifactRepository;
+import org.gradle.api.artifacts.repositories.MavenArtifactRepository;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.provider.Provider;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Points Maven repositories declared in build and settings scripts at the settings.xml mirror that matches them,
+ * as Maven does for every repository it uses.
+ * <p>
+ * Repositories are matched by their Gradle name, except Maven Central, which is matched as {@code central} like in
+ * a POM. Repositories on the file system, such as {@code mavenLocal()}, are never mirrored.
+ */
+public class MirrorRewriter {
+
+    private static final String CENTRAL_ID = "central";
+    private static final String CENTRAL_URL = "https://repo.maven.apache.org/maven2";
+
+    private final SettingsFiles files;
+    private final List<ResolvedMirror> mirrors;
+
+    /**
+     * Holds no build service reference, so the settings plugin can pass it to isolated project actions.
+     */
+    public MirrorRewriter(SettingsFiles files, List<ResolvedMirror> mirrors) {
+        this.files = files;
+        this.mirrors = List.copyOf(mirrors);
+    }
+
+    /**
+     * Rewrites the repositories of the given project.
+     */
+    public void attachTo(Project project) {
+        rewrite(project.getRepositories(), MavenSettingsService.register(project.getGradle(), project.getProviders()),
+                project.getLogger(), Set.of());
+    }
+
+    /**
+     * Rewrites the Maven repositories of the handler, those already declared and those added later, except the
+     * given ones.
+     */
+    public void rewrite(RepositoryHandler repositories, Provider<MavenSettingsService> service, Logger logger,
+                        Set<ArtifactRepository> skipped) {
+        if (mirrors.isEmpty()) {
+            return;
+        }
+        MirrorSelector selector = new MirrorSelector(mirrors);
+        repositories.withType(MavenArtifactRepository.class).all(repo -> {
+            if (!skipped.contains(repo)) {
+                rewrite(repo, selector, service, logger);
+            }
+        });
+    }
+
+    private void rewrite(MavenArtifactRepository repo, MirrorSelector selector,
+                         Provider<MavenSettingsService> service, Logger logger) {
+        URI uri = repo.getUrl();
+        if (uri == null || "file".equals(uri.getScheme())) {
+            return;
+        }
+        String url = uri.toString();
+        ResolvedMirror mirror = selector.select(mavenId(repo.getName(), url), url);
+        if (mirror == null || mirror.getUrl() == null) {
+            return;
+        }
+
+        logger.info("Maven repository '{}' ({}) is mirrored by '{}' ({})", repo.getName(), url, mirror.getId(),
+                mirror.getUrl());
+        repo.setUrl(mirror.getUrl());
+        if (mirror.getCredentials() != null) {
+            ServerAuthentication.attachTo(repo, service, files, mirror.getCredentials(), logger);
+        }
+    }
+
+    private static String mavenId(String name, String url) {
+        String trimmed = url;
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return CENTRAL_URL.equals(trimmed) ? CENTRAL_ID : name;
+    }
+}
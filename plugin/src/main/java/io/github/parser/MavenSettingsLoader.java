@@ -7,12 +7,40 @@ import org.apache.maven.settings.building.SettingsBuildingException;
 import org.apache.maven.settings.building.SettingsBuildingRequest;
 import org.apache.maven.settings.building.SettingsBuildingResult;
 import org.apache.maven.settings.building.DefaultSettingsBuilderFactory;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
 
 import java.io.File;
+import java.util.Properties;
 
 public class MavenSettingsLoader {
 
+    private static final Logger LOGGER = Logging.getLogger(MavenSettingsLoader.class);
+
+    private final boolean streaming;
+
+    public MavenSettingsLoader() {
+        this(false);
+    }
+
+    /**
+     * @param streaming whether to read the files with the {@link StaxSettingsReader} first, falling back to the
+     *                  Maven settings builder for anything it does not support
+     */
+    public MavenSettingsLoader(boolean streaming) {
+        this.streaming = streaming;
+    }
+
     public Settings loadSettings(File userSettingsFile, File globalSettingsFile) throws SettingsBuildingException {
+        String userHome = System.getProperty("user.home");
+        if (streaming) {
+            try {
+                return new StaxSettingsReader(System::getenv, userHome).read(userSettingsFile, globalSettingsFile);
+            } catch (UnsupportedSettingsException e) {
+                LOGGER.info("Using the Maven settings builder: {}", e.getMessage());
+            }
+        }
+
         SettingsBuilder settingsBuilder = new DefaultSettingsBuilderFactory().newInstance();
         SettingsBuildingRequest request = new DefaultSettingsBuildingRequest();
 
@@ -24,8 +52,12 @@ public class MavenSettingsLoader {
             request.setGlobalSettingsFile(globalSettingsFile);
         }
 
-        // We can add system properties if needed
-        // request.setSystemProperties(System.getProperties());
+        // Only ${user.home} besides ${env.*}, so the settings depend on nothing else from the JVM
+        Properties systemProperties = new Properties();
+        if (userHome != null) {
+            systemProperties.setProperty("user.home", userHome);
+        }
+        request.setSystemProperties(systemProperties);
 
         SettingsBuildingResult result = settingsBuilder.build(request);
         return result.getEffectiveSettings();
@@ -0,0 +1,371 @@
+package io.github.parser;
+
+import org.apache.maven.settings.Mirror;
+import org.apache.maven.settings.Profile;
+import org.apache.maven.settings.Proxy;
+import org.apache.maven.settings.Repository;
+import org.apache.maven.settings.RepositoryPolicy;
+import org.apache.maven.settings.Server;
+import org.apache.maven.settings.Settings;
+import org.apache.maven.settings.TrackableBase;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Streaming settings.xml reader for the elements the plugin uses, avoiding the class loading and warm-up of the
+ * full Maven settings builder.
+ * <p>
+ * It reproduces what {@code DefaultSettingsBuilder} does for those elements: {@code ${env.*}} and
+ * {@code ${user.home}} interpolation, the model defaults, and merging the user settings over the global ones by
+ * id. Anything else (unknown elements, server {@code <configuration>}, DTDs, values the builder's validator would
+ * reject or nested expressions) raises {@link UnsupportedSettingsException} so the caller can use the full
+ * builder instead.
+ */
+final class StaxSettingsReader {
+
+    private static final Pattern EXPRESSION = Pattern.compile("\\$\\{(env\\.[^}]+|user\\.home)}");
+    private static final Pattern PLUGIN_GROUP = Pattern.compile("[A-Za-z0-9_\\-.]+");
+    private static final String ILLEGAL_ID_CHARACTERS = "\\/:\"<>|?*";
+
+    private final XMLInputFactory factory;
+    private final UnaryOperator<String> environment;
+    private final String userHome;
+
+    StaxSettingsReader(UnaryOperator<String> environment, String userHome) {
+        this.environment = environment;
+        this.userHome = userHome;
+        this.factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    /**
+     * Reads and merges the given files; missing or {@code null} files count as empty settings.
+     */
+    Settings read(File userSettingsFile, File globalSettingsFile) throws UnsupportedSettingsException {
+        Settings user = readFile(userSettingsFile);
+        Settings global = readFile(globalSettingsFile);
+        merge(user, global);
+        return user;
+    }
+
+    private Settings readFile(File file) throws UnsupportedSettingsException {
+        if (file == null || !file.exists()) {
+            return new Settings();
+        }
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            XMLStreamReader xml = factory.createXMLStreamReader(in);
+            try {
+                while (xml.next() != XMLStreamConstants.START_ELEMENT) {
+                    if (xml.getEventType() == XMLStreamConstants.DTD) {
+                        throw new UnsupportedSettingsException(file + " declares a DTD");
+                    }
+                }
+                if (!"settings".equals(xml.getLocalName())) {
+                    throw new UnsupportedSettingsException(file + " is not a settings file");
+                }
+                return readSettings(xml);
+            } finally {
+                xml.close();
+            }
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            throw new UnsupportedSettingsException("cannot stream " + file + " (" + e.getMessage() + ")");
+        }
+    }
+
+    private Settings readSettings(XMLStreamReader xml) throws XMLStreamException, UnsupportedSettingsException {
+        Settings settings = new Settings();
+        children(xml, name -> {
+            switch (name) {
+                case "localRepository" -> settings.setLocalRepository(text(xml));
+                case "interactiveMode" -> settings.setInteractiveMode(Boolean.parseBoolean(text(xml)));
+                case "usePluginRegistry" -> settings.setUsePluginRegistry(Boolean.parseBoolean(text(xml)));
+                case "offline" -> settings.setOffline(Boolean.parseBoolean(text(xml)));
+                case "proxies" -> children(xml, item -> settings.addProxy(readProxy(xml, item)));
+                case "servers" -> children(xml, item -> settings.addServer(readServer(xml, item)));
+                case "mirrors" -> children(xml, item -> settings.addMirror(readMirror(xml, item)));
+                case "profiles" -> children(xml, item -> settings.addProfile(readProfile(xml, item)));
+                case "activeProfiles" -> children(xml, item -> settings.addActiveProfile(listItem(xml, item, "activeProfile")));
+                case "pluginGroups" -> children(xml, item -> settings.addPluginGroup(pluginGroup(xml, item)));
+                default -> throw unsupported(name);
+            }
+        });
+        return settings;
+    }
+
+    private Proxy readProxy(XMLStreamReader xml, String element) throws XMLStreamException, UnsupportedSettingsException {
+        expect(element, "proxy");
+        Proxy proxy = new Proxy();
+        children(xml, name -> {
+            switch (name) {
+                case "id" -> proxy.setId(text(xml));
+                case "active" -> proxy.setActive(Boolean.parseBoolean(text(xml)));
+                case "protocol" -> proxy.setProtocol(text(xml));
+                case "username" -> proxy.setUsername(text(xml));
+                case "password" -> proxy.setPassword(text(xml));
+                case "port" -> proxy.setPort(integer(text(xml)));
+                case "host" -> proxy.setHost(text(xml));
+                case "nonProxyHosts" -> proxy.setNonProxyHosts(text(xml));
+                default -> throw unsupported(name);
+            }
+        });
+        require(proxy.getHost(), "proxy host");
+        return proxy;
+    }
+
+    private Server readServer(XMLStreamReader xml, String element) throws XMLStreamException, UnsupportedSettingsException {
+        expect(element, "server");
+        Server server = new Server();
+        children(xml, name -> {
+            switch (name) {
+                case "id" -> server.setId(text(xml));
+                case "username" -> server.setUsername(text(xml));
+                case "password" -> server.setPassword(text(xml));
+                case "privateKey" -> server.setPrivateKey(text(xml));
+                case "passphrase" -> server.setPassphrase(text(xml));
+                case "filePermissions" -> server.setFilePermissions(text(xml));
+                case "directoryPermissions" -> server.setDirectoryPermissions(text(xml));
+                default -> throw unsupported(name);
+            }
+        });
+        require(server.getId(), "server id");
+        return server;
+    }
+
+    private Mirror readMirror(XMLStreamReader xml, String element) throws XMLStreamException, UnsupportedSettingsException {
+        expect(element, "mirror");
+        Mirror mirror = new Mirror();
+        children(xml, name -> {
+            switch (name) {
+                case "id" -> mirror.setId(text(xml));
+                case "name" -> mirror.setName(text(xml));
+                case "url" -> mirror.setUrl(text(xml));
+                case "mirrorOf" -> mirror.setMirrorOf(text(xml));
+                case "layout" -> mirror.setLayout(text(xml));
+                case "mirrorOfLayouts" -> mirror.setMirrorOfLayouts(text(xml));
+                case "blocked" -> mirror.setBlocked(Boolean.parseBoolean(text(xml)));
+                default -> throw unsupported(name);
+            }
+        });
+        requireId(mirror.getId(), "mirror id");
+        require(mirror.getUrl(), "mirror url");
+        require(mirror.getMirrorOf(), "mirrorOf");
+        return mirror;
+    }
+
+    private Profile readProfile(XMLStreamReader xml, String element) throws XMLStreamException, UnsupportedSettingsException {
+        expect(element, "profile");
+        Profile profile = new Profile();
+        children(xml, name -> {
+            switch (name) {
+                case "id" -> profile.setId(text(xml));
+                // Not used by the plugin
+                case "activation", "properties" -> skip(xml);
+                case "repositories" -> children(xml, item -> profile.addRepository(readRepository(xml, item, "repository")));
+                case "pluginRepositories" ->
+                        children(xml, item -> profile.addPluginRepository(readRepository(xml, item, "pluginRepository")));
+                default -> throw unsupported(name);
+            }
+        });
+        require(profile.getId(), "profile id");
+        return profile;
+    }
+
+    private Repository readRepository(XMLStreamReader xml, String element, String expected)
+            throws XMLStreamException, UnsupportedSettingsException {
+        expect(element, expected);
+        Repository repository = new Repository();
+        children(xml, name -> {
+            switch (name) {
+                case "id" -> repository.setId(text(xml));
+                case "name" -> repository.setName(text(xml));
+                case "url" -> repository.setUrl(text(xml));
+                case "layout" -> repository.setLayout(text(xml));
+                case "releases" -> repository.setReleases(readPolicy(xml));
+                case "snapshots" -> repository.setSnapshots(readPolicy(xml));
+                default -> throw unsupported(name);
+            }
+        });
+        requireId(repository.getId(), "repository id");
+        require(repository.getUrl(), "repository url");
+        return repository;
+    }
+
+    private RepositoryPolicy readPolicy(XMLStreamReader xml) throws XMLStreamException, UnsupportedSettingsException {
+        RepositoryPolicy policy = new RepositoryPolicy();
+        children(xml, name -> {
+            switch (name) {
+                case "enabled" -> policy.setEnabled(Boolean.parseBoolean(text(xml)));
+                case "updatePolicy" -> policy.setUpdatePolicy(text(xml));
+                case "checksumPolicy" -> policy.setChecksumPolicy(text(xml));
+                default -> throw unsupported(name);
+            }
+        });
+        return policy;
+    }
+
+    private String listItem(XMLStreamReader xml, String element, String expected)
+            throws XMLStreamException, UnsupportedSettingsException {
+        expect(element, expected);
+        String value = text(xml);
+        require(value, expected);
+        return value;
+    }
+
+    private String pluginGroup(XMLStreamReader xml, String element) throws XMLStreamException, UnsupportedSettingsException {
+        String group = listItem(xml, element, "pluginGroup");
+        if (!PLUGIN_GROUP.matcher(group).matches()) {
+            throw new UnsupportedSettingsException("invalid plugin group '" + group + "'");
+        }
+        return group;
+    }
+
+    /**
+     * Same as {@code SettingsUtils.merge}: the user settings win, and global entries are added when their id
+     * is not used yet.
+     */
+    static void merge(Settings dominant, Settings recessive) {
+        for (String profileId : recessive.getActiveProfiles()) {
+            if (!dominant.getActiveProfiles().contains(profileId)) {
+                dominant.addActiveProfile(profileId);
+            }
+        }
+        for (String group : recessive.getPluginGroups()) {
+            if (!dominant.getPluginGroups().contains(group)) {
+                dominant.addPluginGroup(group);
+            }
+        }
+        if (dominant.getLocalRepository() == null || dominant.getLocalRepository().isEmpty()) {
+            dominant.setLocalRepository(recessive.getLocalRepository());
+        }
+        mergeById(dominant.getMirrors(), recessive.getMirrors(), Mirror::getId);
+        mergeById(dominant.getServers(), recessive.getServers(), Server::getId);
+        mergeById(dominant.getProxies(), recessive.getProxies(), Proxy::getId);
+        mergeById(dominant.getProfiles(), recessive.getProfiles(), Profile::getId);
+    }
+
+    private static <T extends TrackableBase> void mergeById(List<T> dominant, List<T> recessive,
+                                                            Function<T, String> id) {
+        Set<String> ids = new HashSet<>();
+        for (T item : dominant) {
+            ids.add(id.apply(item));
+        }
+        for (T item : new ArrayList<>(recessive)) {
+            if (!ids.contains(id.apply(item))) {
+                item.setSourceLevel(TrackableBase.GLOBAL_LEVEL);
+                dominant.add(item);
+            }
+        }
+    }
+
+    private interface ChildHandler {
+        void handle(String name) throws XMLStreamException, UnsupportedSettingsException;
+    }
+
+    /**
+     * Calls the handler for each child element of the current element; the handler must consume the child.
+     */
+    private static void children(XMLStreamReader xml, ChildHandler handler)
+            throws XMLStreamException, UnsupportedSettingsException {
+        while (true) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                handler.handle(xml.getLocalName());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                return;
+            } else if (event == XMLStreamConstants.CHARACTERS && !xml.isWhiteSpace()) {
+                throw new UnsupportedSettingsException("unexpected text '" + xml.getText().trim() + "'");
+            }
+        }
+    }
+
+    private static void skip(XMLStreamReader xml) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    // Values are trimmed like the Maven reader does, then interpolated
+    private String text(XMLStreamReader xml) throws XMLStreamException, UnsupportedSettingsException {
+        return interpolate(xml.getElementText().trim());
+    }
+
+    private String interpolate(String value) throws UnsupportedSettingsException {
+        if (value.indexOf('$') < 0) {
+            return value;
+        }
+        Matcher matcher = EXPRESSION.matcher(value);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String expression = matcher.group(1);
+            String replacement = expression.equals("user.home")
+                    ? userHome
+                    : environment.apply(expression.substring("env.".length()));
+            if (replacement != null && replacement.contains("${")) {
+                throw new UnsupportedSettingsException("nested expression in ${" + expression + "}");
+            }
+            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement != null ? replacement : matcher.group()));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private static int integer(String value) throws UnsupportedSettingsException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new UnsupportedSettingsException("invalid number '" + value + "'");
+        }
+    }
+
+    private static void expect(String element, String expected) throws UnsupportedSettingsException {
+        if (!expected.equals(element)) {
+            throw unsupported(element);
+        }
+    }
+
+    private static void require(String value, String what) throws UnsupportedSettingsException {
+        if (value == null || value.isEmpty()) {
+            throw new UnsupportedSettingsException("missing " + what);
+        }
+    }
+
+    // The builder's validator reports "local" and ids with illegal characters
+    private static void requireId(String id, String what) throws UnsupportedSettingsException {
+        require(id, what);
+        if ("local".equals(id)) {
+            throw new UnsupportedSettingsException("reserved " + what + " 'local'");
+        }
+        for (char c : ILLEGAL_ID_CHARACTERS.toCharArray()) {
+            if (id.indexOf(c) >= 0) {
+                throw new UnsupportedSettingsException("invalid " + what + " '" + id + "'");
+            }
+        }
+    }
+
+    private static UnsupportedSettingsException unsupported(String element) {
+        return new UnsupportedSettingsException("unsupported element <" + element + ">");
+    }
+}
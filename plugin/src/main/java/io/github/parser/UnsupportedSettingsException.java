@@ -0,0 +1,14 @@
+package io.github.parser;
+
+/**
+ * Thrown by {@link StaxSettingsReader} when a settings file uses something it does not handle, so the caller
+ * can fall back to the full Maven settings builder.
+ */
+class UnsupportedSettingsException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    UnsupportedSettingsException(String message) {
+        super(message);
+    }
+}
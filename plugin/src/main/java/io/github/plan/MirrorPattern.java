@@ -0,0 +1,102 @@
+package io.github.plan;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A compiled {@code <mirrorOf>} expression.
+ * <p>
+ * Follows Maven's {@code DefaultMirrorSelector}: patterns are evaluated left to right, the first explicit
+ * {@code id} or {@code !id} entry for a repository decides the outcome, and the wildcards {@code *},
+ * {@code external:*} and {@code external:http:*} only apply when no explicit entry names the repository.
+ * Explicit entries are precomputed into a hash map so matching does not depend on the pattern length.
+ */
+final class MirrorPattern {
+
+    private static final String WILDCARD = "*";
+    private static final String EXTERNAL_WILDCARD = "external:*";
+    private static final String EXTERNAL_HTTP_WILDCARD = "external:http:*";
+
+    private final Map<String, Boolean> explicit = new HashMap<>();
+    private boolean any;
+    private boolean external;
+    private boolean externalHttp;
+
+    private MirrorPattern() {
+    }
+
+    static MirrorPattern compile(String mirrorOf) {
+        MirrorPattern pattern = new MirrorPattern();
+        if (mirrorOf == null) {
+            return pattern;
+        }
+        for (String part : mirrorOf.split(",")) {
+            String entry = part.trim();
+            if (entry.length() > 1 && entry.startsWith("!")) {
+                pattern.explicit.putIfAbsent(entry.substring(1), Boolean.FALSE);
+            } else if (WILDCARD.equals(entry)) {
+                pattern.any = true;
+            } else if (EXTERNAL_WILDCARD.equals(entry)) {
+                pattern.external = true;
+            } else if (EXTERNAL_HTTP_WILDCARD.equals(entry)) {
+                pattern.externalHttp = true;
+            } else if (!entry.isEmpty()) {
+                pattern.explicit.putIfAbsent(entry, Boolean.TRUE);
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * Whether the pattern contains a wildcard, i.e. may match repositories it does not name.
+     */
+    boolean hasWildcard() {
+        return any || external || externalHttp;
+    }
+
+    /**
+     * Ids this pattern explicitly includes.
+     */
+    Iterable<String> includedIds() {
+        return () -> explicit.entrySet().stream()
+                .filter(Map.Entry::getValue)
+                .map(Map.Entry::getKey)
+                .iterator();
+    }
+
+    boolean matches(String repoId, String repoUrl) {
+        Boolean decision = explicit.get(repoId);
+        if (decision != null) {
+            return decision;
+        }
+        if (any) {
+            return true;
+        }
+        if (!external && !externalHttp) {
+            return false;
+        }
+        URL url = parseUrl(repoUrl);
+        if (url == null || isLocal(url)) {
+            return false;
+        }
+        return external || "http".equalsIgnoreCase(url.getProtocol()) || "dav".equalsIgnoreCase(url.getProtocol());
+    }
+
+    private static boolean isLocal(URL url) {
+        String host = url.getHost();
+        return "file".equals(url.getProtocol()) || "localhost".equals(host) || "127.0.0.1".equals(host);
+    }
+
+    private static URL parseUrl(String repoUrl) {
+        if (repoUrl == null) {
+            return null;
+        }
+        try {
+            return new URL(repoUrl);
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+}
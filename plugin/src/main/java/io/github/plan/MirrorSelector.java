@@ -0,0 +1,39 @@
+package io.github.plan;
+
+import org.apache.maven.settings.Mirror;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Selects the {@link ResolvedMirror} of a repository with the same rules as {@link ResolutionIndex}, for
+ * repositories that are not declared in settings.xml.
+ */
+public final class MirrorSelector {
+
+    private final ResolutionIndex index;
+    private final Map<Mirror, ResolvedMirror> mirrors = new IdentityHashMap<>();
+
+    public MirrorSelector(List<ResolvedMirror> resolvedMirrors) {
+        List<Mirror> models = new ArrayList<>(resolvedMirrors.size());
+        for (ResolvedMirror resolved : resolvedMirrors) {
+            Mirror model = new Mirror();
+            model.setId(resolved.getId());
+            model.setUrl(resolved.getUrl());
+            model.setMirrorOf(resolved.getMirrorOf());
+            models.add(model);
+            mirrors.put(model, resolved);
+        }
+        this.index = new ResolutionIndex(models, List.of());
+    }
+
+    /**
+     * Returns the mirror for the given repository, or {@code null} if it is not mirrored.
+     */
+    public ResolvedMirror select(String repoId, String repoUrl) {
+        Mirror mirror = index.findMirror(repoId, repoUrl);
+        return mirror != null ? mirrors.get(mirror) : null;
+    }
+}
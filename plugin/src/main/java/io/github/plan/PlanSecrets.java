@@ -0,0 +1,75 @@
+package io.github.plan;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Rewrites the secrets of a {@link RepositoryPlan}: server and proxy passwords and server HTTP header values.
+ * <p>
+ * Each secret that is set is passed to the function along with a name identifying it, such as
+ * {@code MAVEN_SERVER_NEXUS_PASSWORD} for the password of server {@code nexus} or
+ * {@code MAVEN_SERVER_NEXUS_HEADER_PRIVATE_TOKEN} for its {@code Private-Token} header. Secrets the function maps
+ * to {@code null} are left out.
+ */
+public final class PlanSecrets {
+
+    private PlanSecrets() {
+    }
+
+    public static RepositoryPlan replace(RepositoryPlan plan, BiFunction<String, String, String> secret) {
+        List<ResolvedRepository> repositories = new ArrayList<>();
+        for (ResolvedRepository repository : plan.getRepositories()) {
+            repositories.add(new ResolvedRepository(repository.getId(), repository.getUrl(),
+                    repository.getSourceIds(), replace(repository.getCredentials(), secret)));
+        }
+        List<ResolvedProxy> proxies = new ArrayList<>();
+        for (ResolvedProxy proxy : plan.getProxies()) {
+            proxies.add(new ResolvedProxy(proxy.getId(), proxy.getProtocol(), proxy.getHost(), proxy.getPort(),
+                    proxy.getUsername(), apply(secret, name("PROXY", proxy.getId(), "PASSWORD"),
+                    proxy.getPassword()), proxy.getNonProxyHosts()));
+        }
+        List<ResolvedMirror> mirrors = new ArrayList<>();
+        for (ResolvedMirror mirror : plan.getMirrors()) {
+            mirrors.add(new ResolvedMirror(mirror.getId(), mirror.getUrl(), mirror.getMirrorOf(),
+                    replace(mirror.getCredentials(), secret)));
+        }
+        return new RepositoryPlan(repositories, proxies, plan.getActiveProfileCount(), plan.getLocalRepository(),
+                mirrors);
+    }
+
+    private static ServerCredentials replace(ServerCredentials credentials,
+                                             BiFunction<String, String, String> secret) {
+        if (credentials == null) {
+            return null;
+        }
+        String id = credentials.getServerId();
+        ServerTransport transport = credentials.getTransport();
+        if (transport != null && !transport.getHeaders().isEmpty()) {
+            Map<String, String> headers = new LinkedHashMap<>();
+            transport.getHeaders().forEach((header, value) -> {
+                String replaced = apply(secret, name("SERVER", id, "HEADER_" + header), value);
+                if (replaced != null) {
+                    headers.put(header, replaced);
+                }
+            });
+            transport = new ServerTransport(transport.getConnectTimeout(), transport.getReadTimeout(),
+                    transport.getRetryCount(), headers);
+        }
+        return new ServerCredentials(id, credentials.getUsername(),
+                apply(secret, name("SERVER", id, "PASSWORD"), credentials.getPassword()), transport);
+    }
+
+    private static String apply(BiFunction<String, String, String> secret, String name, String value) {
+        return value != null ? secret.apply(name, value) : null;
+    }
+
+    // MAVEN_SERVER_MY_REPO_PASSWORD for server my-repo
+    private static String name(String kind, String id, String suffix) {
+        String name = "MAVEN_" + kind + "_" + id + "_" + suffix;
+        return name.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9_]", "_");
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.plan;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable result of resolving a Maven settings file set: the repositories to register in Gradle,
+ * the active proxies, the mirrors and the local repository.
+ */
+public final class RepositoryPlan {
+
+    private final List<ResolvedRepository> repositories;
+    private final List<ResolvedProxy> proxies;
+    private final int activeProfileCount;
+    private final String localRepository;
+    private final List<ResolvedMirror> mirrors;
+
+    public RepositoryPlan(List<ResolvedRepository> repositories, List<ResolvedProxy> proxies, int activeProfileCount,
+                          String localRepository, List<ResolvedMirror> mirrors) {
+        this.repositories = Collections.unmodifiableList(repositories);
+        this.proxies = Collections.unmodifiableList(proxies);
+        this.activeProfileCount = activeProfileCount;
+        this.localRepository = localRepository;
+        this.mirrors = Collections.unmodifiableList(mirrors);
+    }
+
+    public List<ResolvedRepository> getRepositories() {
+        return repositories;
+    }
+
+    /**
+     * The active proxies in declaration order; Maven allows one per protocol.
+     */
+    public List<ResolvedProxy> getProxies() {
+        return proxies;
+    }
+
+    /**
+     * Number of active profiles the repositories were taken from.
+     */
+    public int getActiveProfileCount() {
+        return activeProfileCount;
+    }
+
+    /**
+     * The {@code <localRepository>} path from settings.xml, or {@code null} if Maven's default applies.
+     */
+    public String getLocalRepository() {
+        return localRepository;
+    }
+
+    /**
+     * Every mirror in declaration order, for repositories declared outside of settings.xml.
+     */
+    public List<ResolvedMirror> getMirrors() {
+        return mirrors;
+    }
+
+    /**
+     * Number of profile repositories before mirrors were applied and duplicates collapsed.
+     */
+    public int getDeclaredRepositoryCount() {
+        int count = 0;
+        for (ResolvedRepository repository : repositories) {
+            count += repository.getSourceIds().size();
+        }
+        return count;
+    }
+}
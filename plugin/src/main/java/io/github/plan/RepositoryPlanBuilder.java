@@ -0,0 +1,202 @@
+package io.github.plan;
+
+import org.apache.maven.settings.Mirror;
+import org.apache.maven.settings.Profile;
+import org.apache.maven.settings.Proxy;
+import org.apache.maven.settings.Repository;
+import org.apache.maven.settings.Server;
+import org.apache.maven.settings.Settings;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns effective Maven {@link Settings} into a {@link RepositoryPlan}.
+ * <p>
+ * After mirrors and servers are applied, repositories that end up with the same URL and credentials
+ * (typically several profile repositories behind one {@code mirrorOf *} mirror) are collapsed into one,
+ * keeping the position of the first, so Gradle does not query the same host several times per module.
+ */
+public class RepositoryPlanBuilder {
+
+    public RepositoryPlan build(Settings settings) {
+        ResolutionIndex index = new ResolutionIndex(settings);
+        return new RepositoryPlan(collapse(resolveRepositories(settings, index)), resolveProxies(settings),
+                countActiveProfiles(settings), localRepository(settings), resolveMirrors(settings, index));
+    }
+
+    private List<ResolvedRepository> resolveRepositories(Settings settings, ResolutionIndex index) {
+        List<String> activeProfileIds = settings.getActiveProfiles();
+        Map<String, Profile> profiles = settings.getProfilesAsMap();
+
+        List<ResolvedRepository> repositories = new ArrayList<>();
+        for (String profileId : activeProfileIds) {
+            Profile profile = profiles.get(profileId);
+            if (profile != null) {
+                for (Repository mavenRepo : profile.getRepositories()) {
+                    repositories.add(resolveRepository(mavenRepo, index));
+                }
+            }
+        }
+        return repositories;
+    }
+
+    private static List<ResolvedMirror> resolveMirrors(Settings settings, ResolutionIndex index) {
+        List<ResolvedMirror> mirrors = new ArrayList<>();
+        for (Mirror mirror : settings.getMirrors()) {
+            mirrors.add(new ResolvedMirror(mirror.getId(), mirror.getUrl(), mirror.getMirrorOf(),
+                    credentials(index.findServer(mirror.getId()))));
+        }
+        return mirrors;
+    }
+
+    private static String localRepository(Settings settings) {
+        String localRepository = settings.getLocalRepository();
+        return localRepository == null || localRepository.isBlank() ? null : localRepository.trim();
+    }
+
+    private static int countActiveProfiles(Settings settings) {
+        Map<String, Profile> profiles = settings.getProfilesAsMap();
+        int count = 0;
+        for (String profileId : settings.getActiveProfiles()) {
+            if (profiles.containsKey(profileId)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private ResolvedRepository resolveRepository(Repository mavenRepo, ResolutionIndex index) {
+        String url = mavenRepo.getUrl();
+        String id = mavenRepo.getId();
+
+        // Check for Mirrors
+        Mirror mirror = index.findMirror(id, url);
+        if (mirror != null) {
+            url = mirror.getUrl();
+            id = mirror.getId();
+        }
+
+        // Check for Auth (Server)
+        ServerCredentials credentials = credentials(index.findServer(id));
+
+        return new ResolvedRepository(id, url, List.of(mavenRepo.getId()), credentials);
+    }
+
+    private static ServerCredentials credentials(Server server) {
+        return server != null
+                ? new ServerCredentials(server.getId(), server.getUsername(), server.getPassword(),
+                        transport(server.getConfiguration()))
+                : null;
+    }
+
+    /**
+     * Reads the HTTP settings understood by Maven's resolver and wagon transports from a server
+     * {@code <configuration>}. Everything else, including values that are not numbers, is ignored.
+     */
+    private static ServerTransport transport(Object configuration) {
+        if (!(configuration instanceof Xpp3Dom)) {
+            return null;
+        }
+        Xpp3Dom dom = (Xpp3Dom) configuration;
+        Xpp3Dom all = child(child(dom, "httpConfiguration"), "all");
+        Integer connectTimeout = firstNonNull(number(dom, "connectTimeout"), number(all, "connectionTimeout"));
+        Integer readTimeout = firstNonNull(number(dom, "requestTimeout"),
+                firstNonNull(number(dom, "timeout"), number(all, "readTimeout")));
+        Integer retryCount = number(child(all, "retryHandler"), "count");
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        Xpp3Dom httpHeaders = dom.getChild("httpHeaders");
+        if (httpHeaders != null) {
+            for (Xpp3Dom property : httpHeaders.getChildren("property")) {
+                String name = value(property, "name");
+                if (name != null) {
+                    headers.putIfAbsent(name, value(property, "value"));
+                }
+            }
+        }
+
+        if (connectTimeout == null && readTimeout == null && retryCount == null && headers.isEmpty()) {
+            return null;
+        }
+        return new ServerTransport(connectTimeout, readTimeout, retryCount, headers);
+    }
+
+    private static Xpp3Dom child(Xpp3Dom dom, String name) {
+        return dom != null ? dom.getChild(name) : null;
+    }
+
+    private static String value(Xpp3Dom dom, String name) {
+        Xpp3Dom child = child(dom, name);
+        return child != null && child.getValue() != null ? child.getValue().trim() : null;
+    }
+
+    private static Integer number(Xpp3Dom dom, String name) {
+        String value = value(dom, name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Integer firstNonNull(Integer first, Integer second) {
+        return first != null ? first : second;
+    }
+
+    private List<ResolvedRepository> collapse(List<ResolvedRepository> repositories) {
+        Map<String, List<ResolvedRepository>> groups = new LinkedHashMap<>();
+        for (ResolvedRepository repository : repositories) {
+            groups.computeIfAbsent(collapseKey(repository), k -> new ArrayList<>()).add(repository);
+        }
+        if (groups.size() == repositories.size()) {
+            return repositories;
+        }
+
+        List<ResolvedRepository> collapsed = new ArrayList<>(groups.size());
+        for (List<ResolvedRepository> group : groups.values()) {
+            ResolvedRepository first = group.get(0);
+            List<String> sourceIds = new ArrayList<>();
+            for (ResolvedRepository repository : group) {
+                for (String sourceId : repository.getSourceIds()) {
+                    if (!sourceIds.contains(sourceId)) {
+                        sourceIds.add(sourceId);
+                    }
+                }
+            }
+            collapsed.add(new ResolvedRepository(first.getId(), first.getUrl(), sourceIds, first.getCredentials()));
+        }
+        return collapsed;
+    }
+
+    private static String collapseKey(ResolvedRepository repository) {
+        String url = repository.getUrl() != null ? repository.getUrl() : "";
+        while (url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        ServerCredentials credentials = repository.getCredentials();
+        if (credentials == null) {
+            return url;
+        }
+        return url + '\u0000' + credentials.getServerId() + '\u0000' + credentials.getUsername()
+                + '\u0000' + credentials.getPassword();
+    }
+
+    private List<ResolvedProxy> resolveProxies(Settings settings) {
+        // Settings.getActiveProxy() only returns the first one, but Maven uses every active proxy
+        List<ResolvedProxy> proxies = new ArrayList<>();
+        for (Proxy proxy : settings.getProxies()) {
+            if (proxy.isActive()) {
+                proxies.add(new ResolvedProxy(proxy.getId(), proxy.getProtocol(), proxy.getHost(), proxy.getPort(),
+                        proxy.getUsername(), proxy.getPassword(), proxy.getNonProxyHosts()));
+            }
+        }
+        return proxies;
+    }
+}
@@ -0,0 +1,179 @@
+package io.github.plan;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of a {@link RepositoryPlan}.
+ * <p>
+ * The stream starts with a magic number and {@link #VERSION}. Bump the version whenever the layout or the
+ * way plans are resolved changes, so stale entries written by older plugin versions are ignored.
+ */
+public final class RepositoryPlanCodec {
+
+    public static final int VERSION = 8;
+
+    private static final int MAGIC = 0x4D564E53; // "MVNS"
+    private static final int MAX_STRING_LENGTH = 1 << 20;
+
+    private RepositoryPlanCodec() {
+    }
+
+    public static void write(RepositoryPlan plan, DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(plan.getRepositories().size());
+        for (ResolvedRepository repository : plan.getRepositories()) {
+            writeString(out, repository.getId());
+            writeString(out, repository.getUrl());
+            out.writeInt(repository.getSourceIds().size());
+            for (String sourceId : repository.getSourceIds()) {
+                writeString(out, sourceId);
+            }
+            writeCredentials(out, repository.getCredentials());
+        }
+        out.writeInt(plan.getProxies().size());
+        for (ResolvedProxy proxy : plan.getProxies()) {
+            writeString(out, proxy.getId());
+            writeString(out, proxy.getProtocol());
+            writeString(out, proxy.getHost());
+            out.writeInt(proxy.getPort());
+            writeString(out, proxy.getUsername());
+            writeString(out, proxy.getPassword());
+            writeString(out, proxy.getNonProxyHosts());
+        }
+        out.writeInt(plan.getActiveProfileCount());
+        writeString(out, plan.getLocalRepository());
+        out.writeInt(plan.getMirrors().size());
+        for (ResolvedMirror mirror : plan.getMirrors()) {
+            writeString(out, mirror.getId());
+            writeString(out, mirror.getUrl());
+            writeString(out, mirror.getMirrorOf());
+            writeCredentials(out, mirror.getCredentials());
+        }
+    }
+
+    /**
+     * Reads a plan, failing with an {@link IOException} if the stream was written by another format version.
+     */
+    public static RepositoryPlan read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a repository plan");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported repository plan version " + version);
+        }
+        int count = in.readInt();
+        List<ResolvedRepository> repositories = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = readString(in);
+            String url = readString(in);
+            int sourceCount = in.readInt();
+            List<String> sourceIds = new ArrayList<>(sourceCount);
+            for (int j = 0; j < sourceCount; j++) {
+                sourceIds.add(readString(in));
+            }
+            repositories.add(new ResolvedRepository(id, url, sourceIds, readCredentials(in)));
+        }
+        int proxyCount = in.readInt();
+        List<ResolvedProxy> proxies = new ArrayList<>(proxyCount);
+        for (int i = 0; i < proxyCount; i++) {
+            proxies.add(new ResolvedProxy(readString(in), readString(in), readString(in), in.readInt(),
+                    readString(in), readString(in), readString(in)));
+        }
+        int activeProfileCount = in.readInt();
+        String localRepository = readString(in);
+        int mirrorCount = in.readInt();
+        List<ResolvedMirror> mirrors = new ArrayList<>(mirrorCount);
+        for (int i = 0; i < mirrorCount; i++) {
+            mirrors.add(new ResolvedMirror(readString(in), readString(in), readString(in), readCredentials(in)));
+        }
+        return new RepositoryPlan(repositories, proxies, activeProfileCount, localRepository, mirrors);
+    }
+
+    private static void writeCredentials(DataOutputStream out, ServerCredentials credentials) throws IOException {
+        out.writeBoolean(credentials != null);
+        if (credentials != null) {
+            writeString(out, credentials.getServerId());
+            writeString(out, credentials.getUsername());
+            writeString(out, credentials.getPassword());
+            writeTransport(out, credentials.getTransport());
+        }
+    }
+
+    private static void writeTransport(DataOutputStream out, ServerTransport transport) throws IOException {
+        out.writeBoolean(transport != null);
+        if (transport != null) {
+            writeInteger(out, transport.getConnectTimeout());
+            writeInteger(out, transport.getReadTimeout());
+            writeInteger(out, transport.getRetryCount());
+            out.writeInt(transport.getHeaders().size());
+            for (Map.Entry<String, String> header : transport.getHeaders().entrySet()) {
+                writeString(out, header.getKey());
+                writeString(out, header.getValue());
+            }
+        }
+    }
+
+    private static ServerCredentials readCredentials(DataInputStream in) throws IOException {
+        return in.readBoolean()
+                ? new ServerCredentials(readString(in), readString(in), readString(in), readTransport(in))
+                : null;
+    }
+
+    private static ServerTransport readTransport(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        Integer connectTimeout = readInteger(in);
+        Integer readTimeout = readInteger(in);
+        Integer retryCount = readInteger(in);
+        int headerCount = in.readInt();
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            headers.put(readString(in), readString(in));
+        }
+        return new ServerTransport(connectTimeout, readTimeout, retryCount, headers);
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > MAX_STRING_LENGTH) {
+            throw new IOException("Corrupt repository plan");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
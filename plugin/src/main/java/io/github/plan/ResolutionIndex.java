@@ -0,0 +1,88 @@
+package io.github.plan;
+
+import org.apache.maven.settings.Mirror;
+import org.apache.maven.settings.Server;
+import org.apache.maven.settings.Settings;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mirror and server lookups precompiled from {@link Settings}.
+ * <p>
+ * Built once per settings file set. Mirrors are resolved like Maven does: a mirror whose whole
+ * {@code <mirrorOf>} equals the repository id wins, otherwise the first mirror whose pattern matches.
+ * Ids named in patterns are indexed up front, so only wildcard mirrors declared before the first
+ * explicit match are evaluated per lookup, regardless of how many mirrors the settings declare.
+ */
+public final class ResolutionIndex {
+
+    private final List<Mirror> mirrors;
+    private final Map<String, Mirror> exactMirrors = new HashMap<>();
+    private final Map<String, Integer> firstExplicitMirror = new HashMap<>();
+    private final List<Integer> wildcardMirrors = new ArrayList<>();
+    private final List<MirrorPattern> patterns;
+    private final Map<String, Server> servers = new HashMap<>();
+
+    public ResolutionIndex(Settings settings) {
+        this(settings.getMirrors(), settings.getServers());
+    }
+
+    public ResolutionIndex(List<Mirror> mirrors, List<Server> servers) {
+        this.mirrors = List.copyOf(mirrors);
+        this.patterns = new ArrayList<>(mirrors.size());
+
+        for (int i = 0; i < mirrors.size(); i++) {
+            Mirror mirror = mirrors.get(i);
+            if (mirror.getMirrorOf() != null) {
+                exactMirrors.putIfAbsent(mirror.getMirrorOf(), mirror);
+            }
+            MirrorPattern pattern = MirrorPattern.compile(mirror.getMirrorOf());
+            patterns.add(pattern);
+            for (String id : pattern.includedIds()) {
+                firstExplicitMirror.putIfAbsent(id, i);
+            }
+            if (pattern.hasWildcard()) {
+                wildcardMirrors.add(i);
+            }
+        }
+
+        for (Server server : servers) {
+            this.servers.putIfAbsent(server.getId(), server);
+        }
+    }
+
+    /**
+     * Returns the mirror for the given repository, or {@code null} if it is not mirrored.
+     */
+    public Mirror findMirror(String repoId, String repoUrl) {
+        if (repoId == null) {
+            return null;
+        }
+        Mirror exact = exactMirrors.get(repoId);
+        if (exact != null) {
+            return exact;
+        }
+
+        int best = firstExplicitMirror.getOrDefault(repoId, Integer.MAX_VALUE);
+        for (int index : wildcardMirrors) {
+            if (index >= best) {
+                break;
+            }
+            if (patterns.get(index).matches(repoId, repoUrl)) {
+                best = index;
+                break;
+            }
+        }
+        return best != Integer.MAX_VALUE ? mirrors.get(best) : null;
+    }
+
+    /**
+     * Returns the server with the given id, or {@code null} if there is none.
+     */
+    public Server findServer(String id) {
+        return id != null ? servers.get(id) : null;
+    }
+}
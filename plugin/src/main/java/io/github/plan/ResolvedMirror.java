@@ -0,0 +1,41 @@
+package io.github.plan;
+
+/**
+ * A {@code <mirror>} from settings.xml with the credentials of its {@code <server>}.
+ */
+public final class ResolvedMirror {
+
+    private final String id;
+    private final String url;
+    private final String mirrorOf;
+    private final ServerCredentials credentials;
+
+    public ResolvedMirror(String id, String url, String mirrorOf, ServerCredentials credentials) {
+        this.id = id;
+        this.url = url;
+        this.mirrorOf = mirrorOf;
+        this.credentials = credentials;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * The {@code <mirrorOf>} expression, such as {@code *} or {@code external:*,!snapshots}.
+     */
+    public String getMirrorOf() {
+        return mirrorOf;
+    }
+
+    /**
+     * Credentials of the server with the mirror id, or {@code null} if there is none.
+     */
+    public ServerCredentials getCredentials() {
+        return credentials;
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.plan;
+
+/**
+ * An active proxy from settings.xml.
+ */
+public final class ResolvedProxy {
+
+    private final String id;
+    private final String protocol;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final String nonProxyHosts;
+
+    public ResolvedProxy(String id, String protocol, String host, int port, String username, String password,
+                         String nonProxyHosts) {
+        this.id = id;
+        this.protocol = protocol;
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.nonProxyHosts = nonProxyHosts;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getProtocol() {
+        return protocol;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Password as written in settings.xml, so it may still be encrypted.
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    public String getNonProxyHosts() {
+        return nonProxyHosts;
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.plan;
+
+import java.util.List;
+
+/**
+ * A repository from an active profile with mirrors and server credentials already applied.
+ */
+public final class ResolvedRepository {
+
+    private final String id;
+    private final String url;
+    private final List<String> sourceIds;
+    private final ServerCredentials credentials;
+
+    public ResolvedRepository(String id, String url, List<String> sourceIds, ServerCredentials credentials) {
+        this.id = id;
+        this.url = url;
+        this.sourceIds = List.copyOf(sourceIds);
+        this.credentials = credentials;
+    }
+
+    /**
+     * Id of the repository as seen by Gradle (the mirror id when a mirror applies).
+     */
+    public String getId() {
+        return id;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Ids of the profile repositories this repository stands for, in declaration order.
+     * There is more than one when several repositories resolve to the same URL and credentials.
+     */
+    public List<String> getSourceIds() {
+        return sourceIds;
+    }
+
+    /**
+     * Credentials of the matching server, or {@code null} if there is none.
+     */
+    public ServerCredentials getCredentials() {
+        return credentials;
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.plan;
+
+/**
+ * Credentials taken from a {@code <server>} entry in settings.xml.
+ * The password is kept exactly as written in settings.xml, so it may still be encrypted.
+ */
+public final class ServerCredentials {
+
+    private final String serverId;
+    private final String username;
+    private final String password;
+    private final ServerTransport transport;
+
+    public ServerCredentials(String serverId, String username, String password) {
+        this(serverId, username, password, null);
+    }
+
+    public ServerCredentials(String serverId, String username, String password, ServerTransport transport) {
+        this.serverId = serverId;
+        this.username = username;
+        this.password = password;
+        this.transport = transport;
+    }
+
+    public String getServerId() {
+        return serverId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * HTTP settings from the server's {@code <configuration>}, or {@code null} if it has none.
+     */
+    public ServerTransport getTransport() {
+        return transport;
+    }
+}
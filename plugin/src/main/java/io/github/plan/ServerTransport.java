@@ -0,0 +1,53 @@
+package io.github.plan;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * HTTP settings taken from the {@code <configuration>} of a {@code <server>} entry in settings.xml.
+ * Values that are not configured are {@code null}; timeouts are in milliseconds.
+ */
+public final class ServerTransport {
+
+    private final Integer connectTimeout;
+    private final Integer readTimeout;
+    private final Integer retryCount;
+    private final Map<String, String> headers;
+
+    public ServerTransport(Integer connectTimeout, Integer readTimeout, Integer retryCount,
+                           Map<String, String> headers) {
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.retryCount = retryCount;
+        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+    }
+
+    /**
+     * From {@code <connectTimeout>} or {@code <httpConfiguration><all><connectionTimeout>}.
+     */
+    public Integer getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * From {@code <requestTimeout>}, {@code <timeout>} or {@code <httpConfiguration><all><readTimeout>}.
+     */
+    public Integer getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Number of retries after the first attempt, from {@code <httpConfiguration><all><retryHandler><count>}.
+     */
+    public Integer getRetryCount() {
+        return retryCount;
+    }
+
+    /**
+     * Headers from {@code <httpHeaders>}, in declaration order.
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.plan;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Finds the HTTP settings that servers configure with different values.
+ * <p>
+ * Maven applies the timeouts and retries of a {@code <server>} to its repository only. Gradle reads them once for
+ * the whole build, so servers asking for different values cannot all be honoured, whichever value is used.
+ */
+public final class TransportConflicts {
+
+    private TransportConflicts() {
+    }
+
+    /**
+     * Describes each setting the given servers disagree on, e.g.
+     * {@code connect timeout: 5000 ms [nexus], 20000 ms [central, snapshots]}. Empty if they agree.
+     */
+    public static List<String> find(Collection<ServerCredentials> servers) {
+        List<String> conflicts = new ArrayList<>();
+        describe(conflicts, servers, "connect timeout", " ms", ServerTransport::getConnectTimeout);
+        describe(conflicts, servers, "read timeout", " ms", ServerTransport::getReadTimeout);
+        describe(conflicts, servers, "retry count", "", ServerTransport::getRetryCount);
+        return conflicts;
+    }
+
+    private static void describe(List<String> conflicts, Collection<ServerCredentials> servers, String setting,
+                                 String unit, Function<ServerTransport, Integer> value) {
+        Map<Integer, Set<String>> byValue = new TreeMap<>();
+        for (ServerCredentials server : servers) {
+            Integer configured = server.getTransport() != null ? value.apply(server.getTransport()) : null;
+            if (configured != null) {
+                byValue.computeIfAbsent(configured, v -> new TreeSet<>()).add(server.getServerId());
+            }
+        }
+        if (byValue.size() < 2) {
+            return;
+        }
+        List<String> values = new ArrayList<>();
+        byValue.forEach((configured, ids) -> values.add(configured + unit + " " + ids));
+        conflicts.add(setting + ": " + String.join(", ", values));
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.probe;
+
+/**
+ * Outcome of probing one repository URL.
+ */
+public final class ProbeResult {
+
+    private final String url;
+    private final boolean reachable;
+    private final long latencyNanos;
+    private final String failure;
+
+    private ProbeResult(String url, boolean reachable, long latencyNanos, String failure) {
+        this.url = url;
+        this.reachable = reachable;
+        this.latencyNanos = latencyNanos;
+        this.failure = failure;
+    }
+
+    /**
+     * The repository answered, whatever the status code, after the given time.
+     */
+    public static ProbeResult reachable(String url, long latencyNanos) {
+        return new ProbeResult(url, true, latencyNanos, null);
+    }
+
+    public static ProbeResult unreachable(String url, String failure) {
+        return new ProbeResult(url, false, Long.MAX_VALUE, failure);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public boolean isReachable() {
+        return reachable;
+    }
+
+    /**
+     * Time until the response headers arrived, or {@link Long#MAX_VALUE} if the repository is unreachable.
+     */
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    /**
+     * Why the repository is unreachable, or {@code null} if it is reachable.
+     */
+    public String getFailure() {
+        return failure;
+    }
+}
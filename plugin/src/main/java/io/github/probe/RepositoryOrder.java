@@ -0,0 +1,61 @@
+package io.github.probe;
+
+import io.github.plan.ResolvedRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reorders repositories by probed latency within groups whose order does not matter.
+ * <p>
+ * Each group keeps the positions its members had in the original order and fills them fastest first, with
+ * unreachable repositories last. Repositories outside every group, and groups naming a single repository,
+ * stay where they are.
+ */
+public final class RepositoryOrder {
+
+    private RepositoryOrder() {
+    }
+
+    public static List<ResolvedRepository> order(List<ResolvedRepository> repositories,
+                                                 Map<String, ProbeResult> probes,
+                                                 Collection<? extends Collection<String>> orderInsensitiveGroups) {
+        List<ResolvedRepository> ordered = new ArrayList<>(repositories);
+        for (Collection<String> group : orderInsensitiveGroups) {
+            List<Integer> positions = new ArrayList<>();
+            List<ResolvedRepository> members = new ArrayList<>();
+            for (int i = 0; i < ordered.size(); i++) {
+                if (belongsTo(ordered.get(i), group)) {
+                    positions.add(i);
+                    members.add(ordered.get(i));
+                }
+            }
+            // Stable, so repositories with equal latency keep their declaration order
+            members.sort(Comparator.comparingLong(repository -> latency(probes, repository)));
+            for (int i = 0; i < positions.size(); i++) {
+                ordered.set(positions.get(i), members.get(i));
+            }
+        }
+        return ordered;
+    }
+
+    private static boolean belongsTo(ResolvedRepository repository, Collection<String> group) {
+        if (group.contains(repository.getId())) {
+            return true;
+        }
+        for (String sourceId : repository.getSourceIds()) {
+            if (group.contains(sourceId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long latency(Map<String, ProbeResult> probes, ResolvedRepository repository) {
+        ProbeResult probe = probes.get(repository.getUrl());
+        return probe != null ? probe.getLatencyNanos() : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.probe;
+
+import java.io.File;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Measures how long repositories take to answer a {@code HEAD} request on their root URL.
+ * <p>
+ * All URLs are probed concurrently on a small bounded pool and the whole probe is cut off after the timeout,
+ * so probing costs at most one timeout however many repositories there are. Any HTTP response, including
+ * 401 or 404, counts as reachable. Requests go through the given proxy selector, by default the JVM's.
+ */
+public class RepositoryProber {
+
+    private static final int MAX_THREADS = 8;
+
+    private final Duration timeout;
+    private final ProxySelector proxies;
+
+    public RepositoryProber(Duration timeout) {
+        this(timeout, ProxySelector.getDefault());
+    }
+
+    public RepositoryProber(Duration timeout, ProxySelector proxies) {
+        this.timeout = timeout;
+        this.proxies = proxies;
+    }
+
+    /**
+     * Probes the given URLs and returns a result for each of them, in the same order.
+     */
+    public Map<String, ProbeResult> probe(Collection<String> urls) {
+        Map<String, ProbeResult> results = new LinkedHashMap<>();
+        if (urls.isEmpty()) {
+            return results;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(urls.size(), MAX_THREADS), runnable -> {
+            Thread thread = new Thread(runnable, "mvn-settings-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        HttpClient client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .proxy(proxies)
+                .build();
+        try {
+            Map<String, CompletableFuture<ProbeResult>> pending = new LinkedHashMap<>();
+            for (String url : urls) {
+                pending.put(url, probe(client, url));
+            }
+
+            long deadline = System.nanoTime() + timeout.toNanos();
+            for (Map.Entry<String, CompletableFuture<ProbeResult>> entry : pending.entrySet()) {
+                results.put(entry.getKey(), await(entry.getKey(), entry.getValue(), deadline));
+            }
+            return results;
+        } finally {
+            close(client);
+            executor.shutdownNow();
+        }
+    }
+
+    // HttpClient is only AutoCloseable from JDK 21 on, while the plugin still runs on JDK 17
+    private static void close(HttpClient client) {
+        if (client instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) client).close();
+            } catch (Exception e) {
+                // Only releases the client's resources early
+            }
+        }
+    }
+
+    private CompletableFuture<ProbeResult> probe(HttpClient client, String url) {
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ProbeResult.unreachable(url, "invalid URL"));
+        }
+        if ("file".equalsIgnoreCase(uri.getScheme())) {
+            return CompletableFuture.completedFuture(new File(uri).isDirectory()
+                    ? ProbeResult.reachable(url, 0)
+                    : ProbeResult.unreachable(url, "directory does not exist"));
+        }
+        if (!"http".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(uri.getScheme())) {
+            return CompletableFuture.completedFuture(ProbeResult.unreachable(url, "unsupported scheme"));
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .timeout(timeout)
+                .build();
+        long start = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> failure == null
+                        ? ProbeResult.reachable(url, System.nanoTime() - start)
+                        : ProbeResult.unreachable(url, describe(failure)));
+    }
+
+    private ProbeResult await(String url, CompletableFuture<ProbeResult> result, long deadline) {
+        try {
+            return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            return ProbeResult.unreachable(url, "no response within " + timeout.toMillis() + " ms");
+        } catch (ExecutionException e) {
+            return ProbeResult.unreachable(url, describe(e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ProbeResult.unreachable(url, "interrupted");
+        }
+    }
+
+    private static String describe(Throwable failure) {
+        Throwable cause = failure;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
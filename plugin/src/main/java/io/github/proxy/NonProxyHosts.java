@@ -0,0 +1,97 @@
+package io.github.proxy;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled {@code <nonProxyHosts>} expression, e.g. {@code localhost|*.internal|10.0.*}.
+ * <p>
+ * Entries are separated by {@code |} (or {@code ,}, which Maven also accepts) and compared case-insensitively.
+ * Plain names and the common {@code *.suffix} / {@code prefix*} forms are matched with hash and string lookups;
+ * only entries with a wildcard in the middle fall back to a regular expression.
+ */
+public final class NonProxyHosts {
+
+    private final Set<String> exact = new HashSet<>();
+    private final List<String> suffixes = new ArrayList<>();
+    private final List<String> prefixes = new ArrayList<>();
+    private final List<Pattern> patterns = new ArrayList<>();
+    private final boolean any;
+
+    private NonProxyHosts(String expression) {
+        boolean matchAll = false;
+        if (expression != null) {
+            for (String part : expression.split("[|,]")) {
+                String entry = part.trim().toLowerCase(Locale.ROOT);
+                if (entry.isEmpty()) {
+                    continue;
+                }
+                int first = entry.indexOf('*');
+                int last = entry.lastIndexOf('*');
+                if ("*".equals(entry)) {
+                    matchAll = true;
+                } else if (first < 0) {
+                    exact.add(entry);
+                } else if (first == 0 && last == 0) {
+                    suffixes.add(entry.substring(1));
+                } else if (first == entry.length() - 1) {
+                    prefixes.add(entry.substring(0, first));
+                } else {
+                    patterns.add(Pattern.compile(toRegex(entry)));
+                }
+            }
+        }
+        this.any = matchAll;
+    }
+
+    public static NonProxyHosts compile(String expression) {
+        return new NonProxyHosts(expression);
+    }
+
+    /**
+     * Whether connections to the given host bypass the proxy.
+     */
+    public boolean matches(String host) {
+        if (host == null) {
+            return false;
+        }
+        if (any) {
+            return true;
+        }
+        String candidate = host.toLowerCase(Locale.ROOT);
+        if (exact.contains(candidate)) {
+            return true;
+        }
+        for (String suffix : suffixes) {
+            if (candidate.endsWith(suffix)) {
+                return true;
+            }
+        }
+        for (String prefix : prefixes) {
+            if (candidate.startsWith(prefix)) {
+                return true;
+            }
+        }
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(candidate).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String toRegex(String entry) {
+        StringBuilder regex = new StringBuilder();
+        for (String literal : entry.split("\\*", -1)) {
+            if (regex.length() > 0) {
+                regex.append(".*");
+            }
+            regex.append(Pattern.quote(literal));
+        }
+        return regex.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.proxy;
+
+import io.github.plan.ResolvedProxy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Compares settings.xml proxies with the {@code http.*} and {@code https.*} JVM system properties, the only proxy
+ * configuration Gradle's HTTP client reads.
+ * <p>
+ * With the configuration cache, the plugin does not set these properties itself: the build reusing the cache entry
+ * skips the plugin, so they would be missing. Instead it reports the {@code gradle.properties} lines that make
+ * Gradle use the same proxies as Maven.
+ */
+public final class ProxyProperties {
+
+    private ProxyProperties() {
+    }
+
+    /**
+     * Returns the {@code systemProp.*} lines needed for the JVM properties to match the selection, or an empty
+     * list if they already do. Passwords are never included, only a placeholder naming the proxy.
+     *
+     * @param systemProperties reads a JVM system property, returning {@code null} if it is not set
+     */
+    public static List<String> missing(ProxySelection selection, Function<String, String> systemProperties) {
+        List<String> lines = new ArrayList<>();
+        ResolvedProxy bypass = null;
+        for (String protocol : List.of("http", "https")) {
+            ResolvedProxy proxy = selection.forProtocol(protocol);
+            if (proxy == null) {
+                continue;
+            }
+            if (bypass == null) {
+                bypass = proxy;
+            }
+            String port = String.valueOf(proxy.getPort());
+            if (!Objects.equals(proxy.getHost(), systemProperties.apply(protocol + ".proxyHost"))
+                    || !port.equals(systemProperties.apply(protocol + ".proxyPort"))
+                    || (proxy.getUsername() != null
+                    && !proxy.getUsername().equals(systemProperties.apply(protocol + ".proxyUser")))) {
+                lines.add("systemProp." + protocol + ".proxyHost=" + proxy.getHost());
+                lines.add("systemProp." + protocol + ".proxyPort=" + port);
+                if (proxy.getUsername() != null) {
+                    lines.add("systemProp." + protocol + ".proxyUser=" + proxy.getUsername());
+                    lines.add("systemProp." + protocol + ".proxyPassword=<password of proxy '" + proxy.getId() + "'>");
+                }
+            }
+        }
+
+        // The JDK has a single list for both protocols
+        if (bypass != null && bypass.getNonProxyHosts() != null) {
+            String nonProxyHosts = bypass.getNonProxyHosts().replace(',', '|');
+            if (!nonProxyHosts.equals(systemProperties.apply("http.nonProxyHosts"))) {
+                lines.add("systemProp.http.nonProxyHosts=" + nonProxyHosts);
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.proxy;
+
+import io.github.plan.ResolvedProxy;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Chooses the settings.xml proxy, if any, for a repository URL.
+ * <p>
+ * Follows Maven: the first active proxy declared for the repository protocol whose {@code <nonProxyHosts>} do not
+ * match the repository host is used, and the repository is reached directly if there is none. {@code http} proxies
+ * also serve {@code https} repositories when no {@code https} proxy is declared.
+ */
+public final class ProxySelection {
+
+    private final List<ResolvedProxy> proxies;
+    private final List<NonProxyHosts> nonProxyHosts;
+
+    public ProxySelection(List<ResolvedProxy> proxies) {
+        this.proxies = List.copyOf(proxies);
+        this.nonProxyHosts = new ArrayList<>(proxies.size());
+        for (ResolvedProxy proxy : proxies) {
+            nonProxyHosts.add(NonProxyHosts.compile(proxy.getNonProxyHosts()));
+        }
+    }
+
+    /**
+     * Returns the proxy declared for the given protocol ({@code http} or {@code https}), or {@code null}.
+     */
+    public ResolvedProxy forProtocol(String protocol) {
+        return select(protocol, null);
+    }
+
+    /**
+     * Returns the proxy traffic to the given repository URL goes through, or {@code null} if it goes direct.
+     */
+    public ResolvedProxy forUrl(String url) {
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            return null;
+        }
+        return select(uri.getScheme().toLowerCase(Locale.ROOT), uri.getHost());
+    }
+
+    /**
+     * Returns the first proxy for the protocol that does not bypass the host, falling back to {@code http} proxies
+     * for {@code https} if no proxy declares it.
+     */
+    private ResolvedProxy select(String protocol, String host) {
+        boolean declared = false;
+        ResolvedProxy fallback = null;
+        for (int i = 0; i < proxies.size(); i++) {
+            ResolvedProxy proxy = proxies.get(i);
+            String type = proxy.getProtocol() != null ? proxy.getProtocol().toLowerCase(Locale.ROOT) : "http";
+            boolean bypassed = nonProxyHosts.get(i).matches(host);
+            if (type.equals(protocol)) {
+                declared = true;
+                if (!bypassed) {
+                    return proxy;
+                }
+            } else if (fallback == null && !bypassed && "https".equals(protocol) && "http".equals(type)) {
+                fallback = proxy;
+            }
+        }
+        return declared ? null : fallback;
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.proxy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sets JVM system properties for the duration of one build and restores the previous values afterwards.
+ * <p>
+ * Gradle's HTTP client only reads proxy settings from system properties, so they cannot be avoided entirely.
+ * Values the user already set (on the command line or through {@code systemProp.*} in gradle.properties) are
+ * never overridden, and a property is only restored if nobody changed it in the meantime, so nothing leaks
+ * into the next build run by the same daemon.
+ */
+final class ScopedSystemProperties implements AutoCloseable {
+
+    private final Map<String, String> applied = new LinkedHashMap<>();
+    private final Map<String, String> previous = new LinkedHashMap<>();
+
+    /**
+     * Sets the property unless it already has a value.
+     *
+     * @return whether the property was set
+     */
+    synchronized boolean setIfAbsent(String name, String value) {
+        if (value == null || System.getProperty(name) != null) {
+            return false;
+        }
+        previous.put(name, null);
+        applied.put(name, value);
+        System.setProperty(name, value);
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (Map.Entry<String, String> entry : applied.entrySet()) {
+            String name = entry.getKey();
+            if (entry.getValue().equals(System.getProperty(name))) {
+                String value = previous.get(name);
+                if (value == null) {
+                    System.clearProperty(name);
+                } else {
+                    System.setProperty(name, value);
+                }
+            }
+        }
+        applied.clear();
+        previous.clear();
+    }
+}
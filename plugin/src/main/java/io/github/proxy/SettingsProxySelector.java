@@ -0,0 +1,40 @@
+package io.github.proxy;
+
+import io.github.plan.ResolvedProxy;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Routes the plugin's own HTTP requests, such as repository probes, through the settings.xml proxies.
+ * <p>
+ * Passed to a single {@link java.net.http.HttpClient}, so it affects nothing else in the daemon.
+ */
+public final class SettingsProxySelector extends ProxySelector {
+
+    private final ProxySelection selection;
+
+    public SettingsProxySelector(ProxySelection selection) {
+        this.selection = selection;
+    }
+
+    @Override
+    public List<Proxy> select(URI uri) {
+        ResolvedProxy proxy = selection.forUrl(uri.toString());
+        if (proxy == null) {
+            return List.of(Proxy.NO_PROXY);
+        }
+        return List.of(new Proxy(Proxy.Type.HTTP, InetSocketAddress.createUnresolved(proxy.getHost(),
+                proxy.getPort())));
+    }
+
+    @Override
+    public void connectFailed(URI uri, SocketAddress address, IOException failure) {
+        // Nothing to fall back to
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.proxy;
+
+import io.github.plan.ResolvedProxy;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Exposes settings.xml proxies to Gradle's HTTP client through the standard {@code http.*} and {@code https.*}
+ * proxy system properties.
+ * <p>
+ * A protocol is left alone if its {@code proxyHost} is already set, so proxies configured for Gradle itself
+ * win over settings.xml. Everything set here is removed again by {@link #close()}, at the end of the build.
+ */
+public final class SystemProxyProperties implements AutoCloseable {
+
+    private final ScopedSystemProperties properties = new ScopedSystemProperties();
+    private boolean applied;
+
+    /**
+     * Applies the proxies of the given selection. Only the first call per instance has an effect.
+     *
+     * @param passwords decrypts proxy passwords as written in settings.xml
+     */
+    public synchronized void apply(ProxySelection selection, UnaryOperator<String> passwords) {
+        if (applied) {
+            return;
+        }
+        applied = true;
+        ResolvedProxy http = selection.forProtocol("http");
+        ResolvedProxy https = selection.forProtocol("https");
+        boolean httpSet = apply("http", http, passwords);
+        boolean httpsSet = apply("https", https, passwords);
+
+        // The JDK has a single list for both protocols, shared with https
+        ResolvedProxy bypass = httpSet ? http : httpsSet ? https : null;
+        if (bypass != null && bypass.getNonProxyHosts() != null) {
+            properties.setIfAbsent("http.nonProxyHosts", bypass.getNonProxyHosts().replace(',', '|'));
+        }
+    }
+
+    private boolean apply(String protocol, ResolvedProxy proxy, UnaryOperator<String> passwords) {
+        if (proxy == null || !properties.setIfAbsent(protocol + ".proxyHost", proxy.getHost())) {
+            return false;
+        }
+        properties.setIfAbsent(protocol + ".proxyPort", String.valueOf(proxy.getPort()));
+        if (proxy.getUsername() != null) {
+            properties.setIfAbsent(protocol + ".proxyUser", proxy.getUsername());
+            properties.setIfAbsent(protocol + ".proxyPassword", passwords.apply(proxy.getPassword()));
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void close() {
+        properties.close();
+        applied = false;
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.report;
+
+import io.github.metrics.SettingsMetrics;
+import io.github.service.MavenSettingsService;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.Project;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.UntrackedTask;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Prints how long the plugin took in each phase of this build, with plan cache and repository counts, and
+ * writes the same report as text and JSON.
+ */
+@UntrackedTask(because = "Reports the metrics of the current build")
+public abstract class MavenSettingsReportTask extends DefaultTask {
+
+    public static final String NAME = "mavenSettingsReport";
+
+    @Internal
+    public abstract Property<MavenSettingsService> getService();
+
+    @OutputFile
+    public abstract RegularFileProperty getTextReport();
+
+    @OutputFile
+    public abstract RegularFileProperty getJsonReport();
+
+    /**
+     * Registers the report task in the given project, unless it already has one.
+     */
+    public static void register(Project project, Provider<MavenSettingsService> service) {
+        if (project.getTasks().getNames().contains(NAME)) {
+            return;
+        }
+        project.getTasks().register(NAME, MavenSettingsReportTask.class, task -> {
+            task.setGroup("help");
+            task.setDescription("Reports the time and work spent applying Maven settings in this build.");
+            task.getService().set(service);
+            task.usesService(service);
+            task.getTextReport().set(project.getLayout().getBuildDirectory().file("reports/mvn-settings/report.txt"));
+            task.getJsonReport().set(project.getLayout().getBuildDirectory().file("reports/mvn-settings/report.json"));
+        });
+    }
+
+    @TaskAction
+    public void report() {
+        SettingsMetrics metrics = getService().get().getMetrics();
+        String text = metrics.toText();
+        write(getTextReport(), text);
+        write(getJsonReport(), metrics.toJson());
+        getLogger().lifecycle(text);
+    }
+
+    private static void write(RegularFileProperty file, String content) {
+        try {
+            Files.createDirectories(file.get().getAsFile().toPath().getParent());
+            Files.writeString(file.get().getAsFile().toPath(), content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
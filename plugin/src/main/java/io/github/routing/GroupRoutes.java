@@ -0,0 +1,32 @@
+package io.github.routing;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Explicit routes from module group to the repository that serves it.
+ * <p>
+ * A routed group is declared as exclusive content of its repository, so Gradle goes straight to the repository that
+ * has it instead of probing each one in order, and no other repository is asked for it. A group is routed as a
+ * whole, so it should only be routed when a single repository serves all of its modules.
+ */
+public final class GroupRoutes {
+
+    private GroupRoutes() {
+    }
+
+    /**
+     * Returns the groups routed to the given repository, in a stable order.
+     */
+    public static Set<String> routedTo(String repository, Map<String, String> routes) {
+        Set<String> groups = new TreeSet<>();
+        for (Map.Entry<String, String> route : new TreeMap<>(routes).entrySet()) {
+            if (route.getValue().equals(repository)) {
+                groups.add(route.getKey());
+            }
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,196 @@
+package io.github.service;
+
+import io.github.crypto.DecryptionCache;
+import io.github.plan.RepositoryPlan;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps resolved plans, and the passwords decrypted for them, in memory for the lifetime of the Gradle daemon.
+ * <p>
+ * Entries are keyed by the settings files they were read from and checked on every use, cheapest first:
+ * <ol>
+ *     <li>the {@link SettingsWatcher} has not seen the files, or the targets of symbolic links, change;</li>
+ *     <li>the real path, size, modification time and file key of each file are unchanged, which catches
+ *     re-created files and changes the watcher reports late (polling implementations);</li>
+ *     <li>the content hash is unchanged. This is only computed when a file cannot be watched, when the files
+ *     reference environment variables or the user home, and otherwise once per verification interval.</li>
+ * </ol>
+ * The watcher runs for the lifetime of the daemon, so a change made between builds is already known when the next
+ * build starts. Its thread is idle until a watched directory changes.
+ * <p>
+ * This is the only state of the plugin shared between builds; it holds nothing a build could modify. Decrypted
+ * passwords stay in memory along with their plan, and are dropped with it when the settings files change.
+ */
+final class DaemonSettingsCache {
+
+    private static final DaemonSettingsCache INSTANCE = new DaemonSettingsCache(Duration.ofMinutes(1));
+
+    private final ConcurrentMap<SettingsFiles, Entry> entries = new ConcurrentHashMap<>();
+    private final SettingsWatcher watcher = new SettingsWatcher();
+    private final long verifyNanos;
+
+    DaemonSettingsCache(Duration verifyInterval) {
+        this.verifyNanos = verifyInterval.toNanos();
+    }
+
+    static DaemonSettingsCache instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the plan cached for the given files, or {@code null} if there is none or the files changed.
+     */
+    RepositoryPlan getPlan(SettingsFiles files) {
+        Entry entry = entries.get(files);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.snapshot.isCurrent(watcher) || !entry.verify(verifyNanos)) {
+            entries.remove(files, entry);
+            return null;
+        }
+        return entry.plan;
+    }
+
+    /**
+     * Returns the decryptions shared by the builds using the plan cached for the given files, or {@code null} if
+     * no plan is cached. Only valid once {@link #getPlan(SettingsFiles)} returned the plan, or it was stored, in the
+     * current build.
+     */
+    DecryptionCache getDecryptions(SettingsFiles files) {
+        Entry entry = entries.get(files);
+        return entry != null ? entry.decryptions : null;
+    }
+
+    /**
+     * Starts watching the given files and records their state. Must be called before the files are read, so
+     * changes made while they are read invalidate the plan stored with {@link #put(Snapshot, RepositoryPlan)}.
+     */
+    Snapshot snapshot(SettingsFiles files) {
+        File[] all = {files.getUserSettingsFile(), files.getGlobalSettingsFile(), files.getSecuritySettingsFile()};
+        List<Path> watched = new ArrayList<>();
+        boolean complete = true;
+        for (File file : all) {
+            if (file == null) {
+                continue;
+            }
+            List<Path> paths = watcher.watch(file.toPath());
+            if (paths == null) {
+                complete = false;
+            } else {
+                watched.addAll(paths);
+            }
+        }
+        long[] generations = new long[watched.size()];
+        for (int i = 0; i < generations.length; i++) {
+            generations[i] = watcher.generation(watched.get(i));
+        }
+        return new Snapshot(files, all, watched, generations, complete);
+    }
+
+    void put(Snapshot snapshot, RepositoryPlan plan) {
+        entries.put(snapshot.files, new Entry(snapshot, plan));
+    }
+
+    void clear() {
+        entries.clear();
+        watcher.stop();
+    }
+
+    /**
+     * State of a set of settings files before they were read.
+     */
+    static final class Snapshot {
+
+        private final SettingsFiles files;
+        private final File[] all;
+        private final List<Path> watched;
+        private final long[] generations;
+        private final boolean complete;
+        private final List<String> stamps;
+        private final SettingsKey key;
+
+        private Snapshot(SettingsFiles files, File[] all, List<Path> watched, long[] generations,
+                         boolean complete) {
+            this.files = files;
+            this.all = all;
+            this.watched = watched;
+            this.generations = generations;
+            this.complete = complete;
+            this.stamps = stamps(all);
+            this.key = SettingsKey.of(all);
+        }
+
+        private boolean isCurrent(SettingsWatcher watcher) {
+            for (int i = 0; i < generations.length; i++) {
+                if (watcher.generation(watched.get(i)) != generations[i]) {
+                    return false;
+                }
+            }
+            return stamps.equals(stamps(all));
+        }
+
+        private boolean needsHash() {
+            return !complete || key.isInterpolated();
+        }
+
+        private boolean hashMatches() {
+            return key.equals(SettingsKey.of(all));
+        }
+
+        private static List<String> stamps(File[] files) {
+            return Arrays.stream(files).map(Snapshot::stamp).toList();
+        }
+
+        private static String stamp(File file) {
+            if (file == null) {
+                return "";
+            }
+            try {
+                Path path = file.toPath();
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return path.toRealPath() + "|" + attributes.size() + "|" + attributes.lastModifiedTime().toMillis()
+                        + "|" + Objects.toString(attributes.fileKey(), "");
+            } catch (IOException e) {
+                return "missing";
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final Snapshot snapshot;
+        private final RepositoryPlan plan;
+        private final DecryptionCache decryptions = new DecryptionCache();
+        private volatile long verifiedAt = System.nanoTime();
+
+        private Entry(Snapshot snapshot, RepositoryPlan plan) {
+            this.snapshot = snapshot;
+            this.plan = plan;
+        }
+
+        private boolean verify(long verifyNanos) {
+            long now = System.nanoTime();
+            if (!snapshot.needsHash() && now - verifiedAt < verifyNanos) {
+                return true;
+            }
+            if (!snapshot.hashMatches()) {
+                return false;
+            }
+            verifiedAt = now;
+            return true;
+        }
+    }
+}
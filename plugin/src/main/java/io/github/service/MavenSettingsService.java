@@ -0,0 +1,540 @@
+package io.github.service;
+
+import io.github.cache.PlanDiskCache;
+import io.github.crypto.DecryptionCache;
+import io.github.crypto.DecryptionResult;
+import io.github.crypto.MavenPasswordDecryptor;
+import io.github.local.LocalRepositoryModules;
+import io.github.metrics.Phase;
+import io.github.metrics.SettingsMetrics;
+import io.github.metrics.SettingsMetrics.Counter;
+import io.github.parser.MavenSettingsLoader;
+import io.github.plan.RepositoryPlan;
+import io.github.plan.RepositoryPlanBuilder;
+import io.github.plan.ResolvedMirror;
+import io.github.plan.ResolvedRepository;
+import io.github.plan.ServerCredentials;
+import io.github.plan.ServerTransport;
+import io.github.plan.TransportConflicts;
+import io.github.probe.ProbeResult;
+import io.github.probe.RepositoryProber;
+import io.github.proxy.ProxyProperties;
+import io.github.proxy.ProxySelection;
+import io.github.proxy.SettingsProxySelector;
+import io.github.proxy.SystemProxyProperties;
+import io.github.snapshot.SettingsSnapshot;
+import org.apache.maven.settings.Settings;
+import org.apache.maven.settings.building.SettingsBuildingException;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.invocation.Gradle;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.provider.ProviderFactory;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Build-scoped service that loads and resolves Maven settings once per build.
+ * <p>
+ * Every project applying the plugin asks this service for its {@link RepositoryPlan}. Plans are keyed by
+ * the canonical paths and content hash of the settings files, so all projects sharing the same files
+ * share a single parse, interpolation and mirror resolution pass.
+ * <p>
+ * Resolved plans are also persisted in a {@link PlanDiskCache} under the Gradle user home, so a fresh daemon
+ * does not need to parse unchanged settings files again. Set the {@value #CACHE_PROPERTY} Gradle property to
+ * {@code false} to bypass it.
+ * <p>
+ * Within a daemon, plans and decrypted passwords are kept in memory between builds by {@link DaemonSettingsCache},
+ * which watches the settings files for changes for the lifetime of the daemon. It is the one piece of state
+ * deliberately shared across builds; set {@value #DAEMON_CACHE_PROPERTY} (or {@value #CACHE_PROPERTY}) to
+ * {@code false} to turn it off.
+ * <p>
+ * Gradle only reads proxies from JVM system properties. The service sets the {@code http(s).proxy*} properties
+ * that are not set yet for the duration of the build and restores them in {@link #close()}. With the configuration
+ * cache, which skips the plugin on reuse, proxies are only reported. The timeouts and retries of servers are
+ * always only reported: Gradle reads them from internal system properties, which the service never sets.
+ * <p>
+ * Projects pointing at a {@link SettingsSnapshot} load it directly, bypassing the settings files, both caches and
+ * password decryption; its credentials come from environment variables.
+ * <p>
+ * With the {@value #PREFETCH_PROPERTY} Gradle property set to {@code true}, {@link #prefetch(SettingsFiles)}
+ * starts loading a plan on a background thread while build scripts are still being evaluated.
+ */
+public abstract class MavenSettingsService implements BuildService<MavenSettingsService.Params>, AutoCloseable {
+
+    public static final String NAME = "mavenSettings";
+
+    public static final String CACHE_PROPERTY = "mavenSettings.cache";
+
+    public static final String STREAMING_PARSER_PROPERTY = "mavenSettings.streamingParser";
+
+    public static final String PREFETCH_PROPERTY = "mavenSettings.prefetch";
+
+    public static final String DAEMON_CACHE_PROPERTY = "mavenSettings.daemonCache";
+
+    public interface Params extends BuildServiceParameters {
+
+        /**
+         * Directory of the persistent plan cache.
+         */
+        DirectoryProperty getCacheDirectory();
+
+        /**
+         * Whether the persistent plan cache is used.
+         */
+        Property<Boolean> getCacheEnabled();
+
+        /**
+         * Whether settings files are read with the streaming parser before falling back to the Maven
+         * settings builder.
+         */
+        Property<Boolean> getStreamingParser();
+
+        /**
+         * Whether plans are loaded in the background as soon as the plugin is applied.
+         */
+        Property<Boolean> getPrefetch();
+
+        /**
+         * Whether plans are kept in memory by the daemon between builds.
+         */
+        Property<Boolean> getDaemonCache();
+    }
+
+    private static final Logger LOGGER = Logging.getLogger(MavenSettingsService.class);
+
+    private final ConcurrentMap<SettingsKey, RepositoryPlan> plans = new ConcurrentHashMap<>();
+    private final ConcurrentMap<SettingsFiles, RepositoryPlan> filePlans = new ConcurrentHashMap<>();
+    private final ConcurrentMap<SettingsFiles, String> fingerprints = new ConcurrentHashMap<>();
+    private final ConcurrentMap<File, RepositoryPlan> snapshots = new ConcurrentHashMap<>();
+    private final ConcurrentMap<SettingsKey, MavenPasswordDecryptor> decryptors = new ConcurrentHashMap<>();
+    private final ConcurrentMap<SettingsFiles, MavenPasswordDecryptor> fileDecryptors = new ConcurrentHashMap<>();
+    private final ConcurrentMap<RepositoryPlan, ProxySelection> proxySelections = new ConcurrentHashMap<>();
+    private final Set<ProxySelection> checkedProxies = ConcurrentHashMap.newKeySet();
+    private final SystemProxyProperties proxyProperties = new SystemProxyProperties();
+    private final ConcurrentMap<SettingsFiles, CompletableFuture<RepositoryPlan>> prefetches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ProbeResult> probes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<File, Set<String>> localModules = new ConcurrentHashMap<>();
+    private final Set<RepositoryPlan> checkedTransports = ConcurrentHashMap.newKeySet();
+    private final SettingsMetrics metrics = new SettingsMetrics();
+    private ExecutorService prefetchExecutor;
+
+    public static Provider<MavenSettingsService> register(Gradle gradle, ProviderFactory providers) {
+        return gradle.getSharedServices().registerIfAbsent(NAME, MavenSettingsService.class, spec -> {
+            spec.getParameters().getCacheDirectory()
+                    .set(new File(gradle.getGradleUserHomeDir(), "caches/mvn-settings/plans"));
+            spec.getParameters().getCacheEnabled()
+                    .set(providers.gradleProperty(CACHE_PROPERTY).map(Boolean::parseBoolean).orElse(true));
+            spec.getParameters().getStreamingParser()
+                    .set(providers.gradleProperty(STREAMING_PARSER_PROPERTY).map(Boolean::parseBoolean).orElse(false));
+            spec.getParameters().getPrefetch().set(prefetchEnabled(providers));
+            spec.getParameters().getDaemonCache()
+                    .set(providers.gradleProperty(DAEMON_CACHE_PROPERTY).map(Boolean::parseBoolean).orElse(true));
+        });
+    }
+
+    /**
+     * Whether the {@value #PREFETCH_PROPERTY} Gradle property enables prefetching.
+     */
+    public static Provider<Boolean> prefetchEnabled(ProviderFactory providers) {
+        return providers.gradleProperty(PREFETCH_PROPERTY).map(Boolean::parseBoolean).orElse(false);
+    }
+
+    /**
+     * Registers the given settings files as a configuration cache input. The fingerprint reads and hashes every
+     * file, so it is only obtained by the first project using the files; the build's cache entry records it once.
+     */
+    public void trackInputs(SettingsFiles files, ProviderFactory providers) {
+        fingerprints.computeIfAbsent(files, f -> providers.of(SettingsFingerprint.class, spec -> {
+            spec.getParameters().getUserSettingsFile().set(f.getUserSettingsFile());
+            spec.getParameters().getGlobalSettingsFile().set(f.getGlobalSettingsFile());
+            spec.getParameters().getSecuritySettingsFile().set(f.getSecuritySettingsFile());
+            spec.getParameters().getSnapshotFile().set(f.getSnapshotFile());
+        }).get());
+    }
+
+    /**
+     * Returns the resolved plan for the given settings files, loading them only if no project has done so yet.
+     */
+    public RepositoryPlan getPlan(SettingsFiles files) {
+        metrics.increment(Counter.PLAN_REQUESTS);
+        CompletableFuture<RepositoryPlan> prefetched = prefetches.get(files);
+        if (prefetched != null) {
+            try {
+                RepositoryPlan plan = prefetched.join();
+                metrics.increment(Counter.PLAN_PREFETCH_HITS);
+                return plan;
+            } catch (CompletionException e) {
+                // Loaded again below, so the failure is reported on the calling thread
+            }
+        }
+        return findPlan(files);
+    }
+
+    /**
+     * Starts loading the plan for the given settings files in the background, if prefetching is enabled.
+     * A later {@link #getPlan(SettingsFiles)} for the same files waits for it instead of loading them again;
+     * other files are loaded as usual. Master passwords needed by the plan are decrypted ahead too.
+     */
+    public void prefetch(SettingsFiles files) {
+        if (!getParameters().getPrefetch().get()) {
+            return;
+        }
+        prefetches.computeIfAbsent(files, f -> CompletableFuture.supplyAsync(() -> {
+            RepositoryPlan plan = findPlan(f);
+            prepareDecryption(f, plan);
+            return plan;
+        }, prefetchExecutor()));
+    }
+
+    /**
+     * Timings and counts of the work done for this build so far.
+     */
+    public SettingsMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Decrypts a password using the given security settings file.
+     */
+    public DecryptionResult decrypt(SettingsFiles files, String password) {
+        return decryptor(files).tryDecrypt(password);
+    }
+
+    /**
+     * Returns the proxies of the given settings files.
+     */
+    public ProxySelection getProxies(SettingsFiles files) {
+        return proxySelections.computeIfAbsent(getPlan(files), p -> new ProxySelection(p.getProxies()));
+    }
+
+    /**
+     * Makes the proxies of the given settings files effective for this build, until {@link #close()}. When projects
+     * use different settings files, the first one to apply its proxies wins.
+     */
+    public ProxySelection applyProxies(SettingsFiles files) {
+        ProxySelection selection = getProxies(files);
+        if (!getPlan(files).getProxies().isEmpty()) {
+            proxyProperties.apply(selection, password -> decryptProxyPassword(files, password));
+        }
+        return selection;
+    }
+
+    /**
+     * Warns, once per build and settings files, when Gradle's HTTP client does not use the settings.xml proxies,
+     * listing the {@code gradle.properties} lines that would make it use them. Used instead of
+     * {@link #applyProxies} with the configuration cache, as properties set by the plugin would be missing when
+     * the cache entry is reused.
+     *
+     * @param systemProperties reads a JVM system property, returning {@code null} if it is not set
+     */
+    public void checkProxyProperties(SettingsFiles files, Function<String, String> systemProperties) {
+        ProxySelection selection = getProxies(files);
+        if (!checkedProxies.add(selection)) {
+            return;
+        }
+        List<String> missing = ProxyProperties.missing(selection, systemProperties);
+        if (!missing.isEmpty()) {
+            LOGGER.warn("Gradle does not use the proxies of the Maven settings, as it only reads them from JVM system "
+                    + "properties. Add these lines to gradle.properties:{}{}", System.lineSeparator(),
+                    String.join(System.lineSeparator(), missing));
+        }
+    }
+
+    /**
+     * Warns, once per build and plan, about servers that configure HTTP timeouts or retries, and about the
+     * settings they configure with different values. Gradle only reads these from internal system properties that
+     * are global to the daemon, so the plugin does not apply them, and could only apply one value to every
+     * repository anyway.
+     */
+    public void checkTransport(RepositoryPlan plan) {
+        if (!checkedTransports.add(plan)) {
+            return;
+        }
+        List<ServerCredentials> servers = new ArrayList<>();
+        for (ResolvedRepository repository : plan.getRepositories()) {
+            collectTransport(servers, repository.getCredentials());
+        }
+        for (ResolvedMirror mirror : plan.getMirrors()) {
+            collectTransport(servers, mirror.getCredentials());
+        }
+        if (servers.isEmpty()) {
+            return;
+        }
+        Set<String> ids = new TreeSet<>();
+        servers.forEach(server -> ids.add(server.getServerId()));
+        LOGGER.warn("Maven servers {} configure HTTP timeouts or retries, which Gradle has no public API for: "
+                + "they are ignored", ids);
+        for (String conflict : TransportConflicts.find(servers)) {
+            LOGGER.warn("Maven servers configure conflicting HTTP settings, which Gradle could only apply to every "
+                    + "repository alike: {}", conflict);
+        }
+    }
+
+    /**
+     * Probes the latency of the given repository URLs. Each URL is probed at most once per build; URLs that
+     * have not been probed yet are probed concurrently.
+     */
+    @SuppressWarnings("try")
+    public synchronized Map<String, ProbeResult> probe(Collection<String> urls, Duration timeout,
+                                                       ProxySelection proxies) {
+        List<String> missing = new ArrayList<>();
+        for (String url : urls) {
+            if (!probes.containsKey(url) && !missing.contains(url)) {
+                missing.add(url);
+            }
+        }
+        if (!missing.isEmpty()) {
+            try (SettingsMetrics.Span span = metrics.start(Phase.PROBING)) {
+                probes.putAll(new RepositoryProber(timeout, new SettingsProxySelector(proxies)).probe(missing));
+            }
+        }
+        Map<String, ProbeResult> results = new LinkedHashMap<>();
+        for (String url : urls) {
+            results.put(url, probes.get(url));
+        }
+        return results;
+    }
+
+    /**
+     * Returns the modules present in the given Maven local repository, as {@code group:name}. The index is updated
+     * once per build, and registered as a configuration cache input; its state is kept next to the plan cache.
+     */
+    @SuppressWarnings("try")
+    public Set<String> getLocalModules(File root, ProviderFactory providers) {
+        return localModules.computeIfAbsent(root, r -> {
+            File stateFile = new File(getParameters().getCacheDirectory().get().getAsFile().getParentFile(),
+                    "local-index/" + Integer.toHexString(r.getAbsolutePath().hashCode()) + ".bin");
+            try (SettingsMetrics.Span span = metrics.start(Phase.LOCAL_INDEX)) {
+                return new TreeSet<>(providers.of(LocalRepositoryModules.class, spec -> {
+                    spec.getParameters().getRepository().set(r);
+                    spec.getParameters().getStateFile().set(stateFile);
+                }).get());
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (prefetchExecutor != null) {
+                prefetchExecutor.shutdownNow();
+            }
+        }
+        proxyProperties.close();
+    }
+
+    private String decryptProxyPassword(SettingsFiles files, String password) {
+        if (files.getSnapshotFile() != null || password == null) {
+            return password;
+        }
+        DecryptionResult result = decrypt(files, password);
+        if (result.isFailed()) {
+            LOGGER.warn("Could not decrypt a proxy password ({}), using it as written in settings.xml",
+                    result.getFailure());
+        }
+        return result.getValue();
+    }
+
+    private static void collectTransport(List<ServerCredentials> servers, ServerCredentials server) {
+        ServerTransport transport = server != null ? server.getTransport() : null;
+        if (transport != null && (transport.getConnectTimeout() != null || transport.getReadTimeout() != null
+                || transport.getRetryCount() != null)) {
+            servers.add(server);
+        }
+    }
+
+    private MavenPasswordDecryptor decryptor(SettingsFiles files) {
+        // The security file is hashed once per build, like the settings files for the plan
+        return fileDecryptors.computeIfAbsent(files, f -> {
+            // Decryptions kept by the daemon along with the plan, which the plan lookup has validated
+            DaemonSettingsCache daemonCache = daemonCache();
+            DecryptionCache kept = daemonCache != null ? daemonCache.getDecryptions(f) : null;
+            if (kept != null) {
+                return new MavenPasswordDecryptor(f.getSecuritySettingsFile(), metrics, kept);
+            }
+            return decryptors.computeIfAbsent(SettingsKey.of(f.getSecuritySettingsFile()),
+                    k -> new MavenPasswordDecryptor(f.getSecuritySettingsFile(), metrics));
+        });
+    }
+
+    private synchronized ExecutorService prefetchExecutor() {
+        if (prefetchExecutor == null) {
+            prefetchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "mvn-settings-prefetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return prefetchExecutor;
+    }
+
+    private void prepareDecryption(SettingsFiles files, RepositoryPlan plan) {
+        if (files.getSnapshotFile() != null) {
+            return;
+        }
+        for (ResolvedRepository repository : plan.getRepositories()) {
+            if (repository.getCredentials() != null && repository.getCredentials().getPassword() != null) {
+                decryptor(files).prepare(repository.getCredentials().getPassword());
+                return;
+            }
+        }
+    }
+
+    private DaemonSettingsCache daemonCache() {
+        if (!getParameters().getCacheEnabled().get() || !getParameters().getDaemonCache().get()) {
+            return null;
+        }
+        return DaemonSettingsCache.instance();
+    }
+
+    private RepositoryPlan findPlan(SettingsFiles files) {
+        if (files.getSnapshotFile() != null) {
+            return snapshots.computeIfAbsent(files.getSnapshotFile(), this::loadSnapshot);
+        }
+        // The files are hashed, or checked against the daemon cache, once per build; later projects reuse the answer
+        RepositoryPlan plan = filePlans.get(files);
+        if (plan != null) {
+            metrics.increment(Counter.PLAN_MEMORY_HITS);
+            return plan;
+        }
+        return filePlans.computeIfAbsent(files, f -> {
+            DaemonSettingsCache daemonCache = daemonCache();
+            return daemonCache != null ? findPlanInDaemon(f, daemonCache) : findPlanByContent(f);
+        });
+    }
+
+    @SuppressWarnings("try")
+    private RepositoryPlan findPlanInDaemon(SettingsFiles files, DaemonSettingsCache daemonCache) {
+        RepositoryPlan cached;
+        DaemonSettingsCache.Snapshot snapshot = null;
+        try (SettingsMetrics.Span span = metrics.start(Phase.FILE_READ)) {
+            cached = daemonCache.getPlan(files);
+            if (cached == null) {
+                snapshot = daemonCache.snapshot(files);
+            }
+        }
+        if (cached != null) {
+            LOGGER.info("Reusing Maven settings {} kept by the daemon", files.getUserSettingsFile());
+            metrics.increment(Counter.PLAN_DAEMON_HITS);
+            recordCounts(cached);
+            return cached;
+        }
+        RepositoryPlan plan = findPlanByContent(files);
+        daemonCache.put(snapshot, plan);
+        return plan;
+    }
+
+    @SuppressWarnings("try")
+    private RepositoryPlan findPlanByContent(SettingsFiles files) {
+        SettingsKey key;
+        try (SettingsMetrics.Span span = metrics.start(Phase.FILE_READ)) {
+            key = SettingsKey.of(files.getUserSettingsFile(), files.getGlobalSettingsFile());
+        }
+        RepositoryPlan plan = plans.get(key);
+        if (plan != null) {
+            metrics.increment(Counter.PLAN_MEMORY_HITS);
+            return plan;
+        }
+        return plans.computeIfAbsent(key, k -> loadPlan(k, files));
+    }
+
+    private RepositoryPlan loadPlan(SettingsKey key, SettingsFiles files) {
+        PlanDiskCache diskCache = getParameters().getCacheEnabled().get()
+                ? new PlanDiskCache(getParameters().getCacheDirectory().get().getAsFile().toPath())
+                : null;
+        if (diskCache != null) {
+            RepositoryPlan cached = diskCache.load(key.getContentHash());
+            if (cached != null) {
+                LOGGER.info("Loaded Maven settings {} from cache", key);
+                metrics.increment(Counter.PLAN_DISK_HITS);
+                recordCounts(cached);
+                return cached;
+            }
+            metrics.increment(Counter.PLAN_DISK_MISSES);
+        }
+
+        RepositoryPlan plan = resolvePlan(key, files);
+        recordCounts(plan);
+        if (diskCache != null) {
+            // Secrets taken from the environment are stored as references, not as their values
+            Map<String, String> environment = new HashMap<>();
+            for (String name : key.getEnvironmentVariables()) {
+                String value = System.getenv(name);
+                if (value != null) {
+                    environment.put(name, value);
+                }
+            }
+            diskCache.store(key.getContentHash(), plan, environment);
+        }
+        return plan;
+    }
+
+    @SuppressWarnings("try")
+    private RepositoryPlan loadSnapshot(File file) {
+        SettingsSnapshot snapshot;
+        try (SettingsMetrics.Span span = metrics.start(Phase.FILE_READ)) {
+            snapshot = SettingsSnapshot.read(file.toPath());
+        } catch (IOException e) {
+            throw new GradleException("Failed to load Maven settings snapshot " + file + " (" + e.getMessage()
+                    + "), export it again with this version of the plugin", e);
+        }
+        for (String name : snapshot.getEnvironmentVariables()) {
+            if (System.getenv(name) == null) {
+                LOGGER.warn("Environment variable {} referenced by Maven settings snapshot {} is not set", name, file);
+            }
+        }
+        LOGGER.info("Loaded Maven settings snapshot {}", file);
+        metrics.increment(Counter.PLAN_SNAPSHOT_LOADS);
+        RepositoryPlan plan = snapshot.resolve(System::getenv);
+        recordCounts(plan);
+        return plan;
+    }
+
+    private void recordCounts(RepositoryPlan plan) {
+        metrics.add(Counter.PROFILES, plan.getActiveProfileCount());
+        metrics.add(Counter.REPOSITORIES_DECLARED, plan.getDeclaredRepositoryCount());
+        metrics.add(Counter.REPOSITORIES_RESOLVED, plan.getRepositories().size());
+    }
+
+    @SuppressWarnings("try")
+    private RepositoryPlan resolvePlan(SettingsKey key, SettingsFiles files) {
+        try {
+            Settings settings;
+            try (SettingsMetrics.Span span = metrics.start(Phase.PARSE)) {
+                MavenSettingsLoader loader = new MavenSettingsLoader(getParameters().getStreamingParser().get());
+                settings = loader.loadSettings(files.getUserSettingsFile(), files.getGlobalSettingsFile());
+            }
+            RepositoryPlan plan;
+            try (SettingsMetrics.Span span = metrics.start(Phase.MIRROR_RESOLUTION)) {
+                plan = new RepositoryPlanBuilder().build(settings);
+            }
+            LOGGER.info("Resolved Maven settings {}", key);
+            return plan;
+        } catch (SettingsBuildingException e) {
+            throw new GradleException("Failed to load Maven settings", e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.service;
+
+import io.github.crypto.DecryptionResult;
+import io.github.plan.ServerCredentials;
+import io.github.plan.ServerTransport;
+import org.gradle.api.GradleException;
+import org.gradle.api.artifacts.repositories.MavenArtifactRepository;
+import org.gradle.api.artifacts.repositories.PasswordCredentials;
+import org.gradle.api.credentials.HttpHeaderCredentials;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.provider.Provider;
+import org.gradle.authentication.http.BasicAuthentication;
+import org.gradle.authentication.http.HttpHeaderAuthentication;
+
+import java.util.Map;
+
+/**
+ * Authenticates Gradle repositories with the credentials of a {@code <server>} entry.
+ * <p>
+ * A single header from the server's {@code <httpHeaders>}, typically a bearer token, is sent with every request,
+ * which saves the challenge round-trip of basic authentication. Gradle supports one header and one kind of
+ * credentials per repository: a server with a username or password is authenticated with them and its headers are
+ * reported as not sent, and a server with several headers and nothing else cannot be used.
+ */
+public final class ServerAuthentication {
+
+    private ServerAuthentication() {
+    }
+
+    public static void attachTo(MavenArtifactRepository repo, Provider<MavenSettingsService> service,
+                                SettingsFiles files, ServerCredentials server, Logger logger) {
+        ServerTransport transport = server.getTransport();
+        Map<String, String> headers = transport != null ? transport.getHeaders() : Map.of();
+        if (server.getUsername() == null && server.getPassword() == null) {
+            if (headers.size() > 1) {
+                throw new GradleException("Maven server '" + server.getServerId() + "' declares HTTP headers "
+                        + headers.keySet() + ", but Gradle sends a single header to repository '" + repo.getName()
+                        + "'");
+            }
+            if (headers.size() == 1) {
+                attachHeader(repo, headers.entrySet().iterator().next());
+            }
+            return;
+        }
+        if (!headers.isEmpty()) {
+            logger.warn("Maven server '{}' declares a username or password and HTTP headers {}, but Gradle "
+                    + "authenticates a repository one way: '{}' uses basic authentication without the headers",
+                    server.getServerId(), headers.keySet(), repo.getName());
+        }
+
+        // Gradle's public API only takes the password as a value, so it is decrypted while the repository is
+        // configured
+        String password = server.getPassword() != null ? decrypt(service.get(), files, server, logger) : null;
+        repo.credentials(PasswordCredentials.class, credentials -> {
+            credentials.setUsername(server.getUsername());
+            credentials.setPassword(password);
+        });
+        repo.authentication(auth -> auth.create("basic", BasicAuthentication.class));
+    }
+
+    private static String decrypt(MavenSettingsService service, SettingsFiles files, ServerCredentials server,
+                                  Logger logger) {
+        // Snapshots hold passwords read from the environment, which are never encrypted
+        if (files.getSnapshotFile() != null) {
+            return server.getPassword();
+        }
+        DecryptionResult result = service.decrypt(files, server.getPassword());
+        if (result.isFailed()) {
+            logger.warn("Could not decrypt the password of server '{}' ({}), using it as written in settings.xml",
+                    server.getServerId(), result.getFailure());
+        }
+        return result.getValue();
+    }
+
+    private static void attachHeader(MavenArtifactRepository repo, Map.Entry<String, String> header) {
+        repo.credentials(HttpHeaderCredentials.class, credentials -> {
+            credentials.setName(header.getKey());
+            credentials.setValue(header.getValue());
+        });
+        repo.authentication(auth -> auth.create("header", HttpHeaderAuthentication.class));
+    }
+}
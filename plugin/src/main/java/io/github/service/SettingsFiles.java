@@ -0,0 +1,66 @@
+package io.github.service;
+
+import java.io.File;
+import java.util.Objects;
+
+/**
+ * The set of Maven settings files a project resolves its repositories from, or the snapshot that replaces them.
+ */
+public final class SettingsFiles {
+
+    private final File userSettingsFile;
+    private final File globalSettingsFile;
+    private final File securitySettingsFile;
+    private final File snapshotFile;
+
+    public SettingsFiles(File userSettingsFile, File globalSettingsFile, File securitySettingsFile) {
+        this(userSettingsFile, globalSettingsFile, securitySettingsFile, null);
+    }
+
+    public SettingsFiles(File userSettingsFile, File globalSettingsFile, File securitySettingsFile,
+                         File snapshotFile) {
+        this.userSettingsFile = userSettingsFile;
+        this.globalSettingsFile = globalSettingsFile;
+        this.securitySettingsFile = securitySettingsFile;
+        this.snapshotFile = snapshotFile;
+    }
+
+    public File getUserSettingsFile() {
+        return userSettingsFile;
+    }
+
+    public File getGlobalSettingsFile() {
+        return globalSettingsFile;
+    }
+
+    public File getSecuritySettingsFile() {
+        return securitySettingsFile;
+    }
+
+    /**
+     * The exported settings snapshot to load instead of the settings files, or {@code null}.
+     */
+    public File getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SettingsFiles)) {
+            return false;
+        }
+        SettingsFiles other = (SettingsFiles) o;
+        return Objects.equals(userSettingsFile, other.userSettingsFile)
+                && Objects.equals(globalSettingsFile, other.globalSettingsFile)
+                && Objects.equals(securitySettingsFile, other.securitySettingsFile)
+                && Objects.equals(snapshotFile, other.snapshotFile);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userSettingsFile, globalSettingsFile, securitySettingsFile, snapshotFile);
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.service;
+
+import io.github.snapshot.SettingsSnapshot;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.ValueSource;
+import org.gradle.api.provider.ValueSourceParameters;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Content hash of the Maven settings files, as a configuration input.
+ * <p>
+ * The plugin obtains this value while configuring the build, so the configuration cache records it and
+ * recomputes it before reusing a cache entry: editing settings.xml, settings-security.xml or an environment
+ * variable they reference invalidates the entry. When a settings snapshot is loaded instead, the snapshot and
+ * the values of the variables its secrets are read from count.
+ * <p>
+ * This only covers the settings files. The Gradle and system properties the plugin reads go through
+ * {@link org.gradle.api.provider.ProviderFactory}, which tracks them itself, and repository probes are not
+ * used when the configuration cache is enabled.
+ */
+public abstract class SettingsFingerprint implements ValueSource<String, SettingsFingerprint.Params> {
+
+    public interface Params extends ValueSourceParameters {
+
+        RegularFileProperty getUserSettingsFile();
+
+        RegularFileProperty getGlobalSettingsFile();
+
+        RegularFileProperty getSecuritySettingsFile();
+
+        RegularFileProperty getSnapshotFile();
+    }
+
+    @Override
+    public String obtain() {
+        Params params = getParameters();
+        if (params.getSnapshotFile().isPresent()) {
+            return snapshotHash(params.getSnapshotFile().get().getAsFile());
+        }
+        return SettingsKey.of(params.getUserSettingsFile().getAsFile().getOrNull(),
+                params.getGlobalSettingsFile().getAsFile().getOrNull(),
+                params.getSecuritySettingsFile().getAsFile().getOrNull()).getContentHash();
+    }
+
+    private static String snapshotHash(File file) {
+        MessageDigest digest = SettingsKey.sha256();
+        try {
+            digest.update(Files.readAllBytes(file.toPath()));
+            for (String name : SettingsSnapshot.read(file.toPath()).getEnvironmentVariables()) {
+                String value = System.getenv(name);
+                digest.update((name + '=' + (value != null ? value : "") + '\n').getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            // Loading the snapshot reports the failure, the hash only needs to differ from a readable one
+            digest.update(("unreadable " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
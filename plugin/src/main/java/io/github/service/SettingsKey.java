@@ -0,0 +1,147 @@
+package io.github.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Identifies a set of settings files by their canonical paths and the hash of their content.
+ * Two projects pointing at the same files (even through different relative paths) share a key,
+ * and editing any of the files produces a new one.
+ * <p>
+ * Settings are interpolated with environment variables and the user home, so the values of every
+ * {@code ${env.*}} and {@code ${user.home}} expression found in the files are part of the content hash as well.
+ */
+final class SettingsKey {
+
+    private static final Pattern ENV_EXPRESSION = Pattern.compile("\\$\\{env\\.([^}]+)}");
+    private static final String USER_HOME_EXPRESSION = "${user.home}";
+
+    private final List<String> paths;
+    private final String contentHash;
+    private final Set<String> environmentVariables;
+    private final boolean interpolated;
+
+    private SettingsKey(List<String> paths, String contentHash, Set<String> environmentVariables,
+                        boolean interpolated) {
+        this.paths = paths;
+        this.contentHash = contentHash;
+        this.environmentVariables = environmentVariables;
+        this.interpolated = interpolated;
+    }
+
+    static SettingsKey of(File... files) {
+        List<String> paths = new ArrayList<>(files.length);
+        MessageDigest digest = sha256();
+        TreeSet<String> envNames = new TreeSet<>();
+        boolean usesUserHome = false;
+        for (File file : files) {
+            if (file == null) {
+                paths.add("");
+                digest.update((byte) 0);
+                continue;
+            }
+            File canonical = canonicalize(file);
+            paths.add(canonical.getPath());
+            if (canonical.isFile()) {
+                try {
+                    byte[] content = Files.readAllBytes(canonical.toPath());
+                    digest.update((byte) 1);
+                    digest.update(content);
+                    String text = new String(content, StandardCharsets.UTF_8);
+                    collectEnvReferences(text, envNames);
+                    usesUserHome |= text.contains(USER_HOME_EXPRESSION);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read " + canonical, e);
+                }
+            } else {
+                digest.update((byte) 0);
+            }
+        }
+        for (String name : envNames) {
+            String value = System.getenv(name);
+            digest.update((name + '=' + (value != null ? value : "") + '\n').getBytes(StandardCharsets.UTF_8));
+        }
+        if (usesUserHome) {
+            digest.update((USER_HOME_EXPRESSION + '=' + System.getProperty("user.home")).getBytes(StandardCharsets.UTF_8));
+        }
+        return new SettingsKey(List.copyOf(paths), HexFormat.of().formatHex(digest.digest()),
+                Collections.unmodifiableSet(envNames), usesUserHome || !envNames.isEmpty());
+    }
+
+    private static void collectEnvReferences(String content, TreeSet<String> names) {
+        Matcher matcher = ENV_EXPRESSION.matcher(content);
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+        }
+    }
+
+    String getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Names of the environment variables referenced by the files.
+     */
+    Set<String> getEnvironmentVariables() {
+        return environmentVariables;
+    }
+
+    /**
+     * Whether the files reference environment variables or the user home, whose values can change without
+     * touching the files.
+     */
+    boolean isInterpolated() {
+        return interpolated;
+    }
+
+    private static File canonicalize(File file) {
+        try {
+            return file.getCanonicalFile();
+        } catch (IOException e) {
+            return file.getAbsoluteFile();
+        }
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SettingsKey)) {
+            return false;
+        }
+        SettingsKey other = (SettingsKey) o;
+        return paths.equals(other.paths) && contentHash.equals(other.contentHash);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * paths.hashCode() + contentHash.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return paths + "@" + contentHash;
+    }
+}
@@ -0,0 +1,181 @@
+package io.github.service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Watches the directories of settings files and counts the changes made to each file.
+ * <p>
+ * Every watched path has a generation that moves forward whenever the file is created, deleted or modified, or
+ * when its directory stops being watchable (deleted, or events were lost). Callers record the generations before
+ * reading the files and compare them later. For symbolic links, the link and each of its targets are watched, so
+ * both retargeting the link and editing the file it points to are seen.
+ * <p>
+ * The watching thread runs until {@link #stop()}, which forgets every path. Forgotten paths report a generation of
+ * {@code -1}, so generations recorded before never prove that a file is unchanged.
+ */
+final class SettingsWatcher {
+
+    private static final int MAX_LINKS = 8;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentMap<Path, Long> generations = new ConcurrentHashMap<>();
+    private final Map<Path, WatchKey> directories = new HashMap<>();
+    private WatchService service;
+    private boolean unavailable;
+
+    /**
+     * Starts watching the given file and, if it is a symbolic link, its targets. Returns the watched paths, or
+     * {@code null} if any of them cannot be watched.
+     */
+    synchronized List<Path> watch(Path file) {
+        List<Path> paths = new ArrayList<>();
+        for (Path path : chain(file)) {
+            Path directory = path.getParent();
+            if (directory == null || !register(directory)) {
+                return null;
+            }
+            generations.putIfAbsent(path, sequence.incrementAndGet());
+            paths.add(path);
+        }
+        return paths;
+    }
+
+    /**
+     * The current generation of a watched path, or {@code -1} if it is not watched.
+     */
+    long generation(Path path) {
+        return generations.getOrDefault(path, -1L);
+    }
+
+    /**
+     * Stops watching and forgets every path. The watching thread ends.
+     */
+    synchronized void stop() {
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+            service = null;
+        }
+        directories.clear();
+        generations.clear();
+    }
+
+    // The file, every link on the way to its target and the target's real path
+    private static Set<Path> chain(Path file) {
+        Set<Path> paths = new LinkedHashSet<>();
+        Path current = file.toAbsolutePath().normalize();
+        paths.add(current);
+        for (int i = 0; i < MAX_LINKS && Files.isSymbolicLink(current); i++) {
+            try {
+                Path target = Files.readSymbolicLink(current);
+                current = current.resolveSibling(target).normalize();
+                paths.add(current);
+            } catch (IOException e) {
+                break;
+            }
+        }
+        try {
+            paths.add(file.toRealPath());
+        } catch (IOException e) {
+            // Missing files are watched through their directory
+        }
+        return paths;
+    }
+
+    private boolean register(Path directory) {
+        WatchKey existing = directories.get(directory);
+        if (existing != null && existing.isValid()) {
+            return true;
+        }
+        if (!Files.isDirectory(directory) || !start()) {
+            return false;
+        }
+        try {
+            directories.put(directory, directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY));
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    private boolean start() {
+        if (service != null) {
+            return true;
+        }
+        if (unavailable) {
+            return false;
+        }
+        try {
+            service = FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            unavailable = true;
+            return false;
+        }
+        WatchService watching = service;
+        Thread thread = new Thread(() -> run(watching), "mvn-settings-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    private void run(WatchService watching) {
+        try {
+            while (true) {
+                WatchKey key = watching.take();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        changedAll(directory);
+                    } else {
+                        changed(directory.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) {
+                    changedAll(directory);
+                    unregister(directory, key);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Stopped
+        }
+    }
+
+    private synchronized void unregister(Path directory, WatchKey key) {
+        directories.remove(directory, key);
+    }
+
+    private void changed(Path path) {
+        generations.computeIfPresent(path, (p, generation) -> sequence.incrementAndGet());
+    }
+
+    private void changedAll(Path directory) {
+        for (Path path : generations.keySet()) {
+            if (directory.equals(path.getParent())) {
+                changed(path);
+            }
+        }
+    }
+}
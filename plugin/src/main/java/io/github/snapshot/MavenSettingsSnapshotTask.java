@@ -0,0 +1,102 @@
+package io.github.snapshot;
+
+import io.github.extension.MavenSettingsExtension;
+import io.github.service.MavenSettingsService;
+import io.github.service.SettingsFiles;
+import org.gradle.api.Action;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.Project;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.UntrackedTask;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Resolves the Maven settings files and exports the result as a {@link SettingsSnapshot}, which agents can
+ * load through {@link MavenSettingsExtension#getSnapshotFile()} instead of the settings files.
+ */
+@UntrackedTask(because = "Exports the Maven settings as resolved by the current build")
+public abstract class MavenSettingsSnapshotTask extends DefaultTask {
+
+    public static final String NAME = "exportMavenSettingsSnapshot";
+
+    @Internal
+    public abstract Property<MavenSettingsService> getService();
+
+    @Internal
+    public abstract RegularFileProperty getUserSettingsFile();
+
+    @Internal
+    public abstract RegularFileProperty getGlobalSettingsFile();
+
+    @Internal
+    public abstract RegularFileProperty getSecuritySettingsFile();
+
+    @OutputFile
+    public abstract RegularFileProperty getSnapshotFile();
+
+    /**
+     * Registers the export task in the given project, unless it already has one.
+     */
+    public static void register(Project project, Provider<MavenSettingsService> service,
+                                MavenSettingsExtension extension) {
+        register(project, service, task -> {
+            task.getUserSettingsFile().set(extension.getUserSettingsFile());
+            task.getGlobalSettingsFile().set(extension.getGlobalSettingsFile());
+            task.getSecuritySettingsFile().set(extension.getSecuritySettingsFile());
+        });
+    }
+
+    /**
+     * Registers the export task for already resolved settings files, so isolated project actions do not
+     * capture the settings extension.
+     */
+    public static void register(Project project, Provider<MavenSettingsService> service, SettingsFiles files) {
+        register(project, service, task -> {
+            task.getUserSettingsFile().fileValue(files.getUserSettingsFile());
+            task.getGlobalSettingsFile().fileValue(files.getGlobalSettingsFile());
+            task.getSecuritySettingsFile().fileValue(files.getSecuritySettingsFile());
+        });
+    }
+
+    private static void register(Project project, Provider<MavenSettingsService> service,
+                                 Action<MavenSettingsSnapshotTask> settingsFiles) {
+        if (project.getTasks().getNames().contains(NAME)) {
+            return;
+        }
+        project.getTasks().register(NAME, MavenSettingsSnapshotTask.class, task -> {
+            task.setGroup("build setup");
+            task.setDescription("Exports the resolved Maven repositories and proxies for machines without "
+                    + "settings.xml.");
+            task.getService().set(service);
+            task.usesService(service);
+            settingsFiles.execute(task);
+            task.getSnapshotFile().set(project.getLayout().getBuildDirectory().file("mvn-settings/snapshot.bin"));
+        });
+    }
+
+    @TaskAction
+    public void export() {
+        // Always read from the settings files, even if this build itself loads a snapshot
+        SettingsFiles files = new SettingsFiles(getUserSettingsFile().getAsFile().getOrNull(),
+                getGlobalSettingsFile().getAsFile().getOrNull(), getSecuritySettingsFile().getAsFile().getOrNull());
+        SettingsSnapshot snapshot = SettingsSnapshot.export(getService().get().getPlan(files));
+        try {
+            snapshot.write(getSnapshotFile().get().getAsFile().toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        getLogger().lifecycle("Exported {} Maven repositories to {}", snapshot.getPlan().getRepositories().size(),
+                getSnapshotFile().get().getAsFile());
+        if (!snapshot.getEnvironmentVariables().isEmpty()) {
+            getLogger().lifecycle("Builds loading it read credentials from the environment variables {}",
+                    String.join(", ", snapshot.getEnvironmentVariables()));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.snapshot;
+
+import io.github.plan.PlanSecrets;
+import io.github.plan.RepositoryPlan;
+import io.github.plan.RepositoryPlanCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A resolved {@link RepositoryPlan} exported to a file, so machines without the Maven settings files (such as
+ * short-lived CI agents) can load it without parsing XML or decrypting anything.
+ * <p>
+ * Secrets are not exported. Server and proxy passwords and server HTTP header values are replaced by
+ * {@code ${env.NAME}} references, resolved from the environment when the snapshot is loaded. The names are
+ * derived from the ids, e.g. {@code MAVEN_SERVER_NEXUS_PASSWORD} for server {@code nexus}.
+ * <p>
+ * The file holds a snapshot header followed by the {@link RepositoryPlanCodec} form of the plan, so a snapshot
+ * must be exported again after upgrading to a plugin version with another plan format.
+ */
+public final class SettingsSnapshot {
+
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x4D56534E; // "MVSN"
+    private static final Pattern REFERENCE = Pattern.compile("\\$\\{env\\.([^}]+)}");
+
+    private final RepositoryPlan plan;
+    private final Set<String> environmentVariables;
+
+    private SettingsSnapshot(RepositoryPlan plan, Set<String> environmentVariables) {
+        this.plan = plan;
+        this.environmentVariables = environmentVariables;
+    }
+
+    /**
+     * Replaces the secrets of the given plan by environment variable references.
+     */
+    public static SettingsSnapshot export(RepositoryPlan plan) {
+        Set<String> names = new TreeSet<>();
+        RepositoryPlan exported = PlanSecrets.replace(plan, (name, value) -> {
+            names.add(name);
+            return "${env." + name + "}";
+        });
+        return new SettingsSnapshot(exported, names);
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write(Path)}.
+     */
+    public static SettingsSnapshot read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a Maven settings snapshot");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported Maven settings snapshot version " + version);
+            }
+            RepositoryPlan plan = RepositoryPlanCodec.read(in);
+            Set<String> names = new TreeSet<>();
+            PlanSecrets.replace(plan, (name, value) -> {
+                Matcher matcher = REFERENCE.matcher(value);
+                if (matcher.matches()) {
+                    names.add(matcher.group(1));
+                }
+                return value;
+            });
+            return new SettingsSnapshot(plan, names);
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            RepositoryPlanCodec.write(plan, out);
+        }
+    }
+
+    /**
+     * The plan with its secrets still referenced.
+     */
+    public RepositoryPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Names of the environment variables the secrets are read from.
+     */
+    public Set<String> getEnvironmentVariables() {
+        return environmentVariables;
+    }
+
+    /**
+     * Returns the plan with every reference replaced by the value of its variable. Secrets whose variable is
+     * not set are left out.
+     */
+    public RepositoryPlan resolve(Function<String, String> environment) {
+        return PlanSecrets.replace(plan, (name, value) -> {
+            Matcher matcher = REFERENCE.matcher(value);
+            return matcher.matches() ? environment.apply(matcher.group(1)) : value;
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.scale;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures configuration time, heap and repository count of generated multi-project builds, and compares them
+ * with a baseline from an earlier commit.
+ * <p>
+ * Run with {@code ./gradlew :plugin:scaleTest}. Results are written to the file named by {@code scale.output};
+ * pass {@code -Pscale.baseline=<results.json>} to fail on metrics that regressed by more than
+ * {@code scale.tolerance} (default 0.25).
+ */
+class ConfigurationScaleTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void configurationScalesWithTheNumberOfProjects() throws Exception {
+        // Arrange
+        List<ScaleScenario> scenarios = ScaleScenario.fromSystemProperties();
+        int iterations = Integer.getInteger("scale.iterations", 3);
+
+        // Starts the daemon and warms it up, so the first scenario is not penalized
+        measure(new ScaleScenario(ScaleScenario.Mode.PROJECT, 10, 10, 50, false), 1);
+
+        // Act
+        List<ScaleResult> results = new ArrayList<>();
+        for (ScaleScenario scenario : scenarios) {
+            results.add(measure(scenario, iterations));
+        }
+        Path output = Path.of(System.getProperty("scale.output", "build/reports/scale/results.json"));
+        ScaleResult.write(results, output);
+
+        // Assert
+        for (ScaleResult result : results) {
+            assertTrue(result.getMetrics().get(ScaleResult.REPOSITORIES) > 0, result.getId());
+        }
+        String baseline = System.getProperty("scale.baseline");
+        if (baseline != null) {
+            Map<String, ScaleResult> previous = ScaleResult.read(Path.of(baseline));
+            double tolerance = Double.parseDouble(System.getProperty("scale.tolerance", "0.25"));
+            List<String> regressions = new ArrayList<>();
+            for (ScaleResult result : results) {
+                ScaleResult before = previous.get(result.getId());
+                if (before != null) {
+                    regressions.addAll(result.regressionsAgainst(before, tolerance));
+                }
+            }
+            assertTrue(regressions.isEmpty(), "Regressions against " + baseline + ":\n"
+                    + String.join("\n", regressions));
+        }
+    }
+
+    /**
+     * Builds the scenario {@code iterations} times. Without the configuration cache, every build configures and
+     * the median is kept. With it, the first build stores the cache and the others reuse it: the first build's
+     * configuration and the median time of the reusing builds are kept.
+     */
+    private ScaleResult measure(ScaleScenario scenario, int iterations) throws Exception {
+        Path projectDir = tempDir.resolve(scenario.getId());
+        Files.createDirectories(projectDir);
+        ScaleBuild.generate(scenario, projectDir);
+
+        GradleRunner runner = GradleRunner.create();
+        runner.withPluginClasspath();
+        runner.withArguments("help", "-PmavenSettings.cache=false",
+                scenario.isConfigurationCache() ? "--configuration-cache" : "--no-configuration-cache");
+        runner.withProjectDir(projectDir.toFile());
+
+        List<Map<String, Long>> configured = new ArrayList<>();
+        List<Long> reuseMillis = new ArrayList<>();
+        for (int i = 0; i < Math.max(iterations, scenario.isConfigurationCache() ? 2 : 1); i++) {
+            long start = System.nanoTime();
+            BuildResult result = runner.build();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            Map<String, Long> metrics = parseMetrics(result.getOutput());
+            if (!metrics.isEmpty()) {
+                configured.add(metrics);
+            } else {
+                assertTrue(result.getOutput().contains("Reusing configuration cache"), scenario.getId());
+                reuseMillis.add(millis);
+            }
+        }
+
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("projects", (long) scenario.getProjects());
+        metrics.put("profiles", (long) scenario.getProfiles());
+        metrics.put("encryptedPercent", (long) scenario.getEncryptedPercent());
+        metrics.put(ScaleResult.CONFIGURATION_MILLIS, median(configured, ScaleResult.CONFIGURATION_MILLIS));
+        metrics.put(ScaleResult.HEAP_BYTES, median(configured, ScaleResult.HEAP_BYTES));
+        metrics.put(ScaleResult.REPOSITORIES, configured.get(0).get(ScaleResult.REPOSITORIES));
+        if (!reuseMillis.isEmpty()) {
+            reuseMillis.sort(null);
+            metrics.put(ScaleResult.REUSE_MILLIS, reuseMillis.get(reuseMillis.size() / 2));
+        }
+        System.out.println(scenario.getId() + ": " + metrics);
+        return new ScaleResult(scenario.getId(), metrics);
+    }
+
+    private static Map<String, Long> parseMetrics(String output) {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        for (String line : output.split("\\R")) {
+            if (line.startsWith("SCALE ")) {
+                int equals = line.indexOf('=');
+                metrics.put(line.substring("SCALE ".length(), equals), Long.parseLong(line.substring(equals + 1)));
+            }
+        }
+        return metrics;
+    }
+
+    private static long median(List<Map<String, Long>> runs, String metric) {
+        List<Long> values = new ArrayList<>();
+        runs.forEach(run -> values.add(run.get(metric)));
+        values.sort(null);
+        return values.get(values.size() / 2);
+    }
+}
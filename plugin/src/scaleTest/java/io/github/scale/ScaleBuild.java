@@ -0,0 +1,130 @@
+package io.github.scale;
+
+import org.sonatype.plexus.components.cipher.DefaultPlexusCipher;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes the multi-project build and Maven settings files of a {@link ScaleScenario}.
+ * <p>
+ * The settings file has {@code profiles} active profiles with one repository each, a server for every repository
+ * and an explicit mirror for every other repository, like the JMH fixture. Once all projects are evaluated, the
+ * settings script reads the password of every registered repository, so decryption is measured however late the
+ * plugin sets it, then prints {@code SCALE name=value} lines: the configuration time since the settings script
+ * started (after its {@code plugins} block), the heap retained by configuration, and the number of repositories
+ * registered in the build. The daemon is shared between scenarios, so the heap is measured after a full GC
+ * relative to the heap in use before configuration started.
+ */
+final class ScaleBuild {
+
+    private static final String MASTER_PASSWORD = "scale-master";
+
+    // Passphrase Maven uses to protect the master password in settings-security.xml
+    private static final String MASTER_PASSPHRASE = "settings.security";
+
+    private static final String METRICS = """
+            gradle.projectsEvaluated { g ->
+              def scaleRepositories = dependencyResolutionManagement.repositories + pluginManagement.repositories
+              g.rootProject.allprojects { scaleRepositories += it.repositories }
+              scaleRepositories.each { repository ->
+                def credentials = repository instanceof AuthenticationSupported
+                    ? repository.configuredCredentials.orNull
+                    : null
+                if (credentials instanceof PasswordCredentials) {
+                  credentials.password
+                }
+              }
+              def configurationMillis = (System.nanoTime() - scaleStart).intdiv(1_000_000)
+              System.gc()
+              println "SCALE configurationMillis=${configurationMillis}"
+              println "SCALE heapBytes=${Runtime.runtime.totalMemory() - Runtime.runtime.freeMemory() - scaleHeap}"
+              println "SCALE repositories=${scaleRepositories.size()}"
+            }
+            """;
+
+    private ScaleBuild() {
+    }
+
+    static void generate(ScaleScenario scenario, Path directory) throws Exception {
+        Files.createDirectories(directory.resolve("maven"));
+        writeMavenSettings(scenario, directory.resolve("maven"));
+
+        // Same daemon for every scenario, sized for the largest one
+        Files.writeString(directory.resolve("gradle.properties"), "org.gradle.jvmargs=-Xmx2g\n");
+
+        boolean settingsPlugin = scenario.getMode() == ScaleScenario.Mode.SETTINGS;
+        // The plugins block has to come first, so the settings plugin is resolved before the clock starts
+        StringBuilder settings = new StringBuilder();
+        if (settingsPlugin) {
+            settings.append("plugins {\n  id('io.github.joaojunceira.gradle-mvn-settings.settings')\n}\n");
+        }
+        settings.append("System.gc()\n")
+                .append("def scaleHeap = Runtime.runtime.totalMemory() - Runtime.runtime.freeMemory()\n")
+                .append("def scaleStart = System.nanoTime()\n");
+        if (settingsPlugin) {
+            settings.append(extension("file"));
+        }
+        settings.append("rootProject.name = 'scale'\n")
+                .append("(0..<").append(scenario.getProjects()).append(").each { include(\"p$it\") }\n")
+                .append(METRICS);
+        Files.writeString(directory.resolve("settings.gradle"), settings);
+        Files.writeString(directory.resolve("build.gradle"), "");
+
+        String projectBuild = settingsPlugin
+                ? ""
+                : "plugins {\n  id('io.github.joaojunceira.gradle-mvn-settings')\n}\n"
+                        + extension("layout.settingsDirectory.file");
+        for (int i = 0; i < scenario.getProjects(); i++) {
+            Path project = directory.resolve("p" + i);
+            Files.createDirectories(project);
+            Files.writeString(project.resolve("build.gradle"), projectBuild);
+        }
+    }
+
+    private static String extension(String fileMethod) {
+        return "mavenSettings {\n"
+                + "  userSettingsFile = " + fileMethod + "('maven/settings.xml')\n"
+                + "  securitySettingsFile = " + fileMethod + "('maven/settings-security.xml')\n"
+                + "}\n";
+    }
+
+    private static void writeMavenSettings(ScaleScenario scenario, Path directory) throws Exception {
+        DefaultPlexusCipher cipher = new DefaultPlexusCipher();
+        int size = scenario.getProfiles();
+        // Spread encrypted passwords evenly, so every prefix of the file has the same mix
+        int encrypted = size * scenario.getEncryptedPercent() / 100;
+
+        StringBuilder xml = new StringBuilder("<settings>\n  <servers>\n");
+        for (int i = 0; i < size; i++) {
+            boolean encrypt = (long) (i + 1) * encrypted / size > (long) i * encrypted / size;
+            String password = encrypt
+                    ? cipher.encryptAndDecorate("secret-" + i, MASTER_PASSWORD)
+                    : "secret-" + i;
+            xml.append("    <server><id>repo-").append(i).append("</id><username>user-").append(i)
+                    .append("</username><password>").append(password).append("</password></server>\n");
+        }
+        xml.append("  </servers>\n  <mirrors>\n");
+        for (int i = 0; i < size; i += 2) {
+            xml.append("    <mirror><id>mirror-").append(i).append("</id><mirrorOf>repo-").append(i)
+                    .append("</mirrorOf><url>https://mirror-").append(i).append(".example.com/maven2</url></mirror>\n");
+        }
+        xml.append("  </mirrors>\n  <profiles>\n");
+        for (int i = 0; i < size; i++) {
+            xml.append("    <profile><id>profile-").append(i).append("</id><repositories><repository><id>repo-")
+                    .append(i).append("</id><url>https://repo-").append(i)
+                    .append(".example.com/maven2</url></repository></repositories></profile>\n");
+        }
+        xml.append("  </profiles>\n  <activeProfiles>\n");
+        for (int i = 0; i < size; i++) {
+            xml.append("    <activeProfile>profile-").append(i).append("</activeProfile>\n");
+        }
+        xml.append("  </activeProfiles>\n</settings>\n");
+        Files.writeString(directory.resolve("settings.xml"), xml);
+
+        Files.writeString(directory.resolve("settings-security.xml"),
+                "<settingsSecurity><master>" + cipher.encryptAndDecorate(MASTER_PASSWORD, MASTER_PASSPHRASE)
+                        + "</master></settingsSecurity>\n");
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.scale;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The metrics measured for one {@link ScaleScenario}, and the baseline file they are written to and compared with.
+ * <p>
+ * The file is JSON with one scenario object per line, so results of two commits can be diffed directly.
+ */
+final class ScaleResult {
+
+    static final String CONFIGURATION_MILLIS = "configurationMillis";
+    static final String REUSE_MILLIS = "reuseMillis";
+    static final String HEAP_BYTES = "heapBytes";
+    static final String REPOSITORIES = "repositories";
+
+    private static final Pattern SCENARIO = Pattern.compile("\"id\": \"([^\"]+)\"");
+    private static final Pattern METRIC = Pattern.compile("\"(\\w+)\": (-?\\d+)");
+
+    // Differences below these are noise, whatever the relative change
+    private static final Map<String, Long> NOISE_FLOOR = Map.of(
+            CONFIGURATION_MILLIS, 250L,
+            REUSE_MILLIS, 250L,
+            HEAP_BYTES, 32L * 1024 * 1024,
+            REPOSITORIES, 0L);
+
+    private final String id;
+    private final Map<String, Long> metrics;
+
+    ScaleResult(String id, Map<String, Long> metrics) {
+        this.id = id;
+        this.metrics = new LinkedHashMap<>(metrics);
+    }
+
+    String getId() {
+        return id;
+    }
+
+    Map<String, Long> getMetrics() {
+        return metrics;
+    }
+
+    static void write(List<ScaleResult> results, Path file) throws IOException {
+        StringBuilder json = new StringBuilder("{\n  \"scenarios\": [");
+        String separator = "\n";
+        for (ScaleResult result : results) {
+            json.append(separator).append("    {\"id\": \"").append(result.id).append('"');
+            result.metrics.forEach((name, value) -> json.append(", \"").append(name).append("\": ").append(value));
+            json.append('}');
+            separator = ",\n";
+        }
+        json.append("\n  ]\n}\n");
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.writeString(file, json);
+    }
+
+    static Map<String, ScaleResult> read(Path file) throws IOException {
+        Map<String, ScaleResult> results = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file)) {
+            Matcher scenario = SCENARIO.matcher(line);
+            if (!scenario.find()) {
+                continue;
+            }
+            Map<String, Long> metrics = new LinkedHashMap<>();
+            Matcher metric = METRIC.matcher(line);
+            while (metric.find()) {
+                metrics.put(metric.group(1), Long.parseLong(metric.group(2)));
+            }
+            results.put(scenario.group(1), new ScaleResult(scenario.group(1), metrics));
+        }
+        return results;
+    }
+
+    /**
+     * Describes every metric that grew by more than {@code tolerance} (0.25 for 25%) over the baseline result of
+     * the same scenario. The repository count is deterministic, so any growth is reported.
+     */
+    List<String> regressionsAgainst(ScaleResult baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Long> floor : NOISE_FLOOR.entrySet()) {
+            Long current = metrics.get(floor.getKey());
+            Long previous = baseline.metrics.get(floor.getKey());
+            if (current == null || previous == null || current - previous <= floor.getValue()) {
+                continue;
+            }
+            double allowed = REPOSITORIES.equals(floor.getKey()) ? previous : previous * (1 + tolerance);
+            if (current > allowed) {
+                regressions.add(id + ": " + floor.getKey() + " " + previous + " -> " + current);
+            }
+        }
+        return regressions;
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.scale;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * One generated build measured by {@link ConfigurationScaleTest}: how many subprojects, how the plugin is applied,
+ * how large the settings file is and how many of its passwords are encrypted.
+ */
+final class ScaleScenario {
+
+    /**
+     * How the plugin is applied to the generated build.
+     */
+    enum Mode {
+        /** The project plugin in every subproject. */
+        PROJECT,
+        /** The settings plugin, once. */
+        SETTINGS
+    }
+
+    private final Mode mode;
+    private final int projects;
+    private final int profiles;
+    private final int encryptedPercent;
+    private final boolean configurationCache;
+
+    ScaleScenario(Mode mode, int projects, int profiles, int encryptedPercent, boolean configurationCache) {
+        this.mode = mode;
+        this.projects = projects;
+        this.profiles = profiles;
+        this.encryptedPercent = encryptedPercent;
+        this.configurationCache = configurationCache;
+    }
+
+    /**
+     * The scenarios selected by the {@code scale.*} system properties, which the build forwards from the
+     * Gradle properties of the same name. Defaults to 10, 100 and 1,000 subprojects with the project plugin,
+     * 50 profiles with half of the passwords encrypted, with and without the configuration cache.
+     */
+    static List<ScaleScenario> fromSystemProperties() {
+        List<ScaleScenario> scenarios = new ArrayList<>();
+        int profiles = Integer.getInteger("scale.profiles", 50);
+        int encryptedPercent = Integer.getInteger("scale.encryptedPercent", 50);
+        for (String mode : System.getProperty("scale.modes", "project").split(",")) {
+            for (String projects : System.getProperty("scale.projects", "10,100,1000").split(",")) {
+                for (boolean configurationCache : new boolean[]{false, true}) {
+                    scenarios.add(new ScaleScenario(Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT)),
+                            Integer.parseInt(projects.trim()), profiles, encryptedPercent, configurationCache));
+                }
+            }
+        }
+        return scenarios;
+    }
+
+    /**
+     * Stable identifier, used to match results against the baseline.
+     */
+    String getId() {
+        return mode.name().toLowerCase(Locale.ROOT) + "-plugin_" + projects + "-projects_" + profiles + "-profiles_"
+                + encryptedPercent + "pct-encrypted_" + (configurationCache ? "cc" : "no-cc");
+    }
+
+    Mode getMode() {
+        return mode;
+    }
+
+    int getProjects() {
+        return projects;
+    }
+
+    int getProfiles() {
+        return profiles;
+    }
+
+    int getEncryptedPercent() {
+        return encryptedPercent;
+    }
+
+    boolean isConfigurationCache() {
+        return configurationCache;
+    }
+}
@@ -4,6 +4,15 @@ import java.io.File;
 import java.io.IOException;
 import java.io.Writer;
 import java.io.FileWriter;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpServer;
 
 import org.gradle.testkit.runner.GradleRunner;
 import org.gradle.testkit.runner.BuildResult;
@@ -82,6 +91,29 @@ class GradleMvnSettingsPluginFunctionalTest {
         assertTrue(result.getOutput().contains("Repo: my-repo -> https://repo.mycompany.com/maven2"));
     }
 
+    @Test
+    void streamingParserConfiguresTheSameRepositories() throws IOException {
+        // Arrange
+        writeString(new File(projectDir, "settings.xml"),
+                singleRepositorySettings("my-repo", "https://repo.mycompany.com/maven2"));
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(), CONFIGURATION_CACHE_BUILD);
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments("listRepos", "--info", "-PmavenSettings.cache=false",
+                "-PmavenSettings.streamingParser=true");
+        runner.withProjectDir(projectDir);
+
+        // Act
+        BuildResult result = runner.build();
+
+        // Assert
+        assertTrue(result.getOutput().contains("Repo: my-repo -> https://repo.mycompany.com/maven2"));
+        assertFalse(result.getOutput().contains("Using the Maven settings builder"));
+    }
+
     @Test
     void canLoadEncryptedCredentials() throws IOException {
         // Create settings-security.xml
@@ -189,6 +221,1100 @@ class GradleMvnSettingsPluginFunctionalTest {
         assertTrue(result.getOutput().contains("Repo: my-secure-repo"));
     }
 
+    @Test
+    void parsesSettingsOncePerBuildForAllProjects() throws IOException {
+        writeString(getMavenSettingsFile(),
+                """
+                        <settings>\
+                          <profiles>\
+                            <profile>\
+                              <id>my-profile</id>\
+                              <repositories>\
+                                <repository>\
+                                  <id>my-repo</id>\
+                                  <url>https://repo.mycompany.com/maven2</url>\
+                                </repository>\
+                              </repositories>\
+                            </profile>\
+                          </profiles>\
+                          <activeProfiles>\
+                            <activeProfile>my-profile</activeProfile>\
+                          </activeProfiles>\
+                        </settings>""");
+
+        writeString(getSettingsFile(), "include('a', 'b', 'c')");
+        for (String project : new String[] { "a", "b", "c" }) {
+            new File(projectDir, project).mkdirs();
+        }
+        writeString(getBuildFile(),
+                """
+                        plugins {
+                          id('io.github.joaojunceira.gradle-mvn-settings') apply false
+                        }
+                        subprojects {
+                          apply plugin: 'io.github.joaojunceira.gradle-mvn-settings'
+                          mavenSettings {
+                            userSettingsFile = rootProject.file('settings.xml')
+                          }
+                          task listRepos {
+                            def lines = provider { repositories.collect { 'Repo: ' + project.name + ' ' + it.name + ' -> ' + it.url } }
+                            doLast {
+                              lines.get().each { println it }
+                            }
+                          }
+                        }""");
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments("listRepos", "--info", "-PmavenSettings.cache=false", "-PmavenSettings.daemonCache=false");
+        runner.withProjectDir(projectDir);
+        BuildResult result = runner.build();
+
+        String output = result.getOutput();
+        for (String project : new String[] { "a", "b", "c" }) {
+            assertTrue(output.contains("Repo: " + project + " my-repo -> https://repo.mycompany.com/maven2"));
+        }
+        assertEquals(1, countOccurrences(output, "Resolved Maven settings"));
+    }
+
+    @Test
+    void reusesPersistedSettingsAcrossBuilds() throws IOException {
+        writeString(getMavenSettingsFile(),
+                """
+                        <settings>\
+                          <profiles>\
+                            <profile>\
+                              <id>cached-profile</id>\
+                              <repositories>\
+                                <repository>\
+                                  <id>cached-repo</id>\
+                                  <url>https://cached.example.com/maven2</url>\
+                                </repository>\
+                              </repositories>\
+                            </profile>\
+                          </profiles>\
+                          <activeProfiles>\
+                            <activeProfile>cached-profile</activeProfile>\
+                          </activeProfiles>\
+                        </settings>""");
+
+        File cacheDir = new File(projectDir, "gradle-user-home");
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(),
+                """
+                        plugins {
+                          id('io.github.joaojunceira.gradle-mvn-settings')
+                        }
+                        mavenSettings {
+                          userSettingsFile = file('settings.xml')
+                        }
+                        task listRepos {
+                          def lines = provider { repositories.collect { 'Repo: ' + it.name + ' -> ' + it.url } }
+                          doLast {
+                            lines.get().each { println it }
+                          }
+                        }""");
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withTestKitDir(cacheDir);
+        // The daemon would keep the plan in memory, skipping the disk cache under test
+        runner.withArguments("listRepos", "--info", "-PmavenSettings.daemonCache=false");
+        runner.withProjectDir(projectDir);
+
+        BuildResult first = runner.build();
+        assertTrue(first.getOutput().contains("Resolved Maven settings"));
+        assertTrue(first.getOutput().contains("Repo: cached-repo -> https://cached.example.com/maven2"));
+
+        BuildResult second = runner.build();
+        assertTrue(second.getOutput().contains("from cache"));
+        assertTrue(second.getOutput().contains("Repo: cached-repo -> https://cached.example.com/maven2"));
+
+        BuildResult bypassed = runner.withArguments("listRepos", "--info", "-PmavenSettings.cache=false").build();
+        assertTrue(bypassed.getOutput().contains("Resolved Maven settings"));
+        assertFalse(bypassed.getOutput().contains("from cache"));
+    }
+
+    @Test
+    void keepsSettingsInTheDaemonUntilTheyChange() throws IOException {
+        writeString(getMavenSettingsFile(),
+                """
+                        <settings>\
+                          <profiles>\
+                            <profile>\
+                              <id>kept</id>\
+                              <repositories>\
+                                <repository>\
+                                  <id>kept-repo</id>\
+                                  <url>https://kept.example.com/maven2</url>\
+                                </repository>\
+                              </repositories>\
+                            </profile>\
+                          </profiles>\
+                          <activeProfiles>\
+                            <activeProfile>kept</activeProfile>\
+                          </activeProfiles>\
+                        </settings>""");
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(),
+                """
+                        plugins {
+                          id('io.github.joaojunceira.gradle-mvn-settings')
+                        }
+                        mavenSettings {
+                          userSettingsFile = file('settings.xml')
+                        }
+                        task listRepos {
+                          def lines = provider { repositories.collect { 'Repo: ' + it.name + ' -> ' + it.url } }
+                          doLast {
+                            lines.get().each { println it }
+                          }
+                        }""");
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withTestKitDir(new File(projectDir, "gradle-user-home"));
+        runner.withArguments("listRepos", "--info");
+        runner.withProjectDir(projectDir);
+
+        BuildResult first = runner.build();
+        assertTrue(first.getOutput().contains("Resolved Maven settings"));
+
+        BuildResult second = runner.build();
+        assertTrue(second.getOutput().contains("kept by the daemon"));
+        assertFalse(second.getOutput().contains("Resolved Maven settings"));
+        assertTrue(second.getOutput().contains("Repo: kept-repo -> https://kept.example.com/maven2"));
+
+        writeString(getMavenSettingsFile(), Files.readString(getMavenSettingsFile().toPath())
+                .replace("https://kept.example.com/maven2", "https://edited.example.com/maven2"));
+        BuildResult edited = runner.build();
+        assertFalse(edited.getOutput().contains("kept by the daemon"));
+        assertTrue(edited.getOutput().contains("Repo: kept-repo -> https://edited.example.com/maven2"));
+    }
+
+    @Test
+    void keepsDecryptedPasswordsInTheDaemonUntilTheSettingsChange() throws IOException {
+        // Arrange
+        String securedSettings = singleRepositorySettings("secured", "https://secured.example.com/maven2")
+                .replace("<profiles>", """
+                        <servers>\
+                          <server>\
+                            <id>secured</id>\
+                            <username>deployer</username>\
+                            <password>{akri52um2pMHDHrMcepIzuVvjDfxdbbMtnn8krmxBtWPK9XE/jCFYjQviEwuWcTQ}</password>\
+                          </server>\
+                        </servers>\
+                        <profiles>""");
+        writeString(getMavenSettingsFile(), securedSettings);
+        writeString(getSecuritySettingsFile(),
+                "<settingsSecurity><master>{6KDnDp70ZD8H+c0sXNj7b6T9lvcIsgccn03E6OHBO80=}</master></settingsSecurity>");
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(),
+                """
+                        plugins {
+                          id('io.github.joaojunceira.gradle-mvn-settings')
+                        }
+                        mavenSettings {
+                          userSettingsFile = file('settings.xml')
+                          securitySettingsFile = file('settings-security.xml')
+                        }""");
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withTestKitDir(new File(projectDir, "gradle-user-home"));
+        runner.withArguments("mavenSettingsReport");
+        runner.withProjectDir(projectDir);
+        File report = new File(projectDir, "build/reports/mvn-settings/report.json");
+
+        // Act
+        runner.build();
+        String first = Files.readString(report.toPath());
+        runner.build();
+        String second = Files.readString(report.toPath());
+        writeString(getMavenSettingsFile(), securedSettings.replace("deployer", "publisher"));
+        runner.build();
+        String edited = Files.readString(report.toPath());
+
+        // Assert
+        assertTrue(first.contains("\"passwordsDecrypted\": 1"));
+        assertTrue(second.contains("\"passwordsDecrypted\": 0"));
+        assertTrue(edited.contains("\"passwordsDecrypted\": 1"));
+    }
+
+    @Test
+    void settingsPluginConfiguresCentralRepositories() throws IOException {
+        writeString(getMavenSettingsFile(),
+                """
+                        <settings>\
+                          <profiles>\
+                            <profile>\
+                              <id>my-profile</id>\
+                              <repositories>\
+                                <repository>\
+                                  <id>my-repo</id>\
+                                  <url>https://repo.mycompany.com/maven2</url>\
+                                </repository>\
+                              </repositories>\
+                            </profile>\
+                          </profiles>\
+                          <activeProfiles>\
+                            <activeProfile>my-profile</activeProfile>\
+                          </activeProfiles>\
+                        </settings>""");
+
+        writeString(getSettingsFile(),
+                """
+                        plugins {
+                          id('io.github.joaojunceira.gradle-mvn-settings.settings')
+                        }
+                        mavenSettings {
+                          userSettingsFile = file('settings.xml')
+                        }
+                        gradle.settingsEvaluated { s ->
+                          s.dependencyResolutionManagement.repositories.each { println 'Dependency repo: ' + it.name + ' -> ' + it.url }
+                          s.pluginManagement.repositories.each { println 'Plugin repo: ' + it.name }
+                        }""");
+        writeString(getBuildFile(),
+                """
+                        task listRepos {
+                          def count = repositories.size()
+                          doLast {
+                            println 'Project repos: ' + count
+                          }
+                        }""");
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments("listRepos");
+        runner.withProjectDir(projectDir);
+        BuildResult result = runner.build();
+
+        String output = result.getOutput();
+        assertTrue(output.contains("Dependency repo: my-repo -> https://repo.mycompany.com/maven2"));
+        assertTrue(output.contains("Plugin repo: Gradle Central Plugin Repository"));
+        assertTrue(output.contains("Plugin repo: my-repo"));
+        assertTrue(output.contains("Project repos: 0"));
+    }
+
+    @Test
+    void routesGroupsToTheirRepository() throws IOException {
+        File otherRepo = new File(projectDir, "repo-one");
+        File routedRepo = new File(projectDir, "repo-two");
+        // The first repository also has the module, but the route makes the second one its only source
+        publishModule(otherRepo, "com.acme", "lib", "1.0");
+        publishModule(routedRepo, "com.acme", "lib", "1.0");
+
+        writeString(getMavenSettingsFile(),
+                """
+                        <settings>\
+                          <profiles>\
+                            <profile>\
+                              <id>local</id>\
+                              <repositories>\
+                                <repository>\
+                                  <id>repo-one</id>\
+                                  <url>%s</url>\
+                                </repository>\
+                                <repository>\
+                                  <id>repo-two</id>\
+                                  <url>%s</url>\
+                                </repository>\
+                              </repositories>\
+                            </profile>\
+                          </profiles>\
+                          <activeProfiles>\
+                            <activeProfile>local</activeProfile>\
+                          </activeProfiles>\
+                        </settings>""".formatted(otherRepo.toURI(), routedRepo.toURI()));
+
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(),
+                """
+                        plugins {
+                          id('io.github.joaojunceira.gradle-mvn-settings')
+                        }
+                        mavenSettings {
+                          userSettingsFile = file('settings.xml')
+                          routeGroup('com.acme', 'repo-two')
+                        }
+                        configurations {
+                          deps
+                        }
+                        dependencies {
+                          deps 'com.acme:lib:1.0'
+                        }
+                        task resolve {
+                          doLast {
+                            configurations.deps.files.each {
+                              println 'Resolved: ' + it.name
+                              println 'From: ' + it.path
+                            }
+                          }
+                        }""");
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments("resolve", "--info", "-PmavenSettings.cache=false");
+        runner.withProjectDir(projectDir);
+
+        BuildResult result = runner.build();
+        assertTrue(result.getOutput().contains("Resolved: lib-1.0.jar"));
+        assertTrue(result.getOutput().contains("From: " + routedRepo.getPath()));
+        assertTrue(result.getOutput().contains("Routing 1 group(s) exclusively to 'repo-two'"));
+        assertFalse(new File(projectDir, ".gradle/mvn-settings-routing.properties").exists());
+    }
+
+    @Test
+    void appliesProxiesForTheBuildOnly() throws IOException {
+        // Arrange: the proxy password is encrypted with the master password of settings-security.xml
+        String proxiedSettings = singleRepositorySettings("proxied", "https://proxied.example.com/maven2")
+                .replace("<settings>", """
+                        <settings><proxies><proxy>\
+                          <id>corp</id><protocol>https</protocol><host>proxy.example.com</host><port>3128</port>\
+                          <username>proxy-user</username>\
+                          <password>{akri52um2pMHDHrMcepIzuVvjDfxdbbMtnn8krmxBtWPK9XE/jCFYjQviEwuWcTQ}</password>\
+                        </proxy></proxies>""");
+        writeString(getMavenSettingsFile(), proxiedSettings);
+        writeString(getSecuritySettingsFile(),
+                "<settingsSecurity><master>{6KDnDp70ZD8H+c0sXNj7b6T9lvcIsgccn03E6OHBO80=}</master></settingsSecurity>");
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(),
+                """
+                        plugins {
+                          id('io.github.joaojunceira.gradle-mvn-settings')
+                        }
+                        mavenSettings {
+                          userSettingsFile = file('settings.xml')
+                          securitySettingsFile = file('settings-security.xml')
+                        }
+                        tasks.register('printProxy') {
+                          doLast {
+                            def names = ['https.proxyHost', 'https.proxyPort', 'https.proxyUser', 'https.proxyPassword']
+                            println "Proxy: ${names.collect { System.getProperty(it) }}"
+                          }
+                        }""");
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments("printProxy", "-PmavenSettings.cache=false");
+        runner.withProjectDir(projectDir);
+
+        // Act
+        BuildResult proxied = runner.build();
+        writeString(getMavenSettingsFile(), singleRepositorySettings("direct", "https://direct.example.com/maven2"));
+        BuildResult direct = runner.build();
+
+        // Assert
+        // The decrypted password is "s3cr\u00e9t with spaces", whose accent depends on the console encoding
+        assertTrue(proxied.getOutput().contains("Proxy: [proxy.example.com, 3128, proxy-user, s3cr"), "proxy applied");
+        assertTrue(proxied.getOutput().contains("t with spaces]"), "proxy password decrypted");
+        assertFalse(proxied.getOutput().contains("Gradle does not use the proxies of the Maven settings"));
+        assertTrue(direct.getOutput().contains("Proxy: [null, null, null, null]"), "proxy left to the next build");
+    }
+
+    @Test
+    void reportsProxiesWithTheConfigurationCache() throws IOException {
+        // Arrange
+        writeString(getMavenSettingsFile(), singleRepositorySettings("proxied", "https://proxied.example.com/maven2")
+                .replace("<settings>", """
+                        <settings><proxies><proxy>\
+                          <id>corp</id><protocol>https</protocol><host>proxy.example.com</host><port>3128</port>\
+                          <username>proxy-user</username><password>s3cret</password>\
+                        </proxy></proxies>"""));
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(), CONFIGURATION_CACHE_BUILD);
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments("help", "--configuration-cache", "-PmavenSettings.cache=false");
+        runner.withProjectDir(projectDir);
+
+        // Act
+        BuildResult result = runner.build();
+
+        // Assert
+        String output = result.getOutput();
+        assertTrue(output.contains("Gradle does not use the proxies of the Maven settings"));
+        assertTrue(output.contains("systemProp.https.proxyHost=proxy.example.com"));
+        assertTrue(output.contains("systemProp.https.proxyPassword=<password of proxy 'corp'>"));
+        assertFalse(output.contains("s3cret"));
+    }
+
+    @Test
+    void reusesConfigurationCacheWithoutRunningThePlugin() throws IOException {
+        writeString(getMavenSettingsFile(), singleRepositorySettings("cc-repo", "https://cc.example.com/maven2"));
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(), CONFIGURATION_CACHE_BUILD);
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments("listRepos", "--configuration-cache", "--info", "-PmavenSettings.cache=false");
+        runner.withProjectDir(projectDir);
+
+        BuildResult first = runner.build();
+        assertTrue(first.getOutput().contains("Configuration cache entry stored"));
+        assertTrue(first.getOutput().contains("Repo: cc-repo -> https://cc.example.com/maven2"));
+
+        BuildResult second = runner.build();
+        assertTrue(second.getOutput().contains("Reusing configuration cache"));
+        assertTrue(second.getOutput().contains("Repo: cc-repo -> https://cc.example.com/maven2"));
+        assertFalse(second.getOutput().contains("Resolved Maven settings"));
+    }
+
+    @Test
+    void invalidatesConfigurationCacheWhenSettingsChange() throws IOException {
+        writeString(getMavenSettingsFile(), singleRepositorySettings("old-repo", "https://old.example.com/maven2"));
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(), CONFIGURATION_CACHE_BUILD);
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments("listRepos", "--configuration-cache");
+        runner.withProjectDir(projectDir);
+
+        BuildResult first = runner.build();
+        assertTrue(first.getOutput().contains("Repo: old-repo -> https://old.example.com/maven2"));
+
+        writeString(getMavenSettingsFile(), singleRepositorySettings("new-repo", "https://new.example.com/maven2"));
+        BuildResult second = runner.build();
+        assertTrue(second.getOutput().contains("configuration cache cannot be reused"));
+        assertTrue(second.getOutput().contains("Repo: new-repo -> https://new.example.com/maven2"));
+        assertFalse(second.getOutput().contains("old-repo"));
+    }
+
+    @Test
+    void reportsTimingsAndCounts() throws IOException {
+        writeString(getMavenSettingsFile(), singleRepositorySettings("report-repo", "https://report.example.com/maven2"));
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(),
+                """
+                        plugins {
+                          id('io.github.joaojunceira.gradle-mvn-settings')
+                        }
+                        mavenSettings {
+                          userSettingsFile = file('settings.xml')
+                        }""");
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments("mavenSettingsReport", "-PmavenSettings.cache=false");
+        runner.withProjectDir(projectDir);
+        BuildResult result = runner.build();
+
+        assertTrue(result.getOutput().contains("XML parse and merge"));
+        assertTrue(result.getOutput().contains("repositories registered"));
+        String json = Files.readString(new File(projectDir, "build/reports/mvn-settings/report.json").toPath());
+        assertTrue(json.contains("\"repositoriesRegistered\": 1"));
+        assertTrue(json.contains("\"profiles\": 1"));
+        assertTrue(new File(projectDir, "build/reports/mvn-settings/report.txt").isFile());
+    }
+
+    @Test
+    void prefetchesDefaultSettingsWhileTheBuildScriptIsEvaluated() throws IOException {
+        // Arrange
+        File home = new File(projectDir, "home");
+        File settingsXml = new File(home, ".m2/settings.xml");
+        settingsXml.getParentFile().mkdirs();
+        writeString(settingsXml, singleRepositorySettings("default-repo", "https://default.example.com/maven2"));
+        writeString(new File(projectDir, "gradle.properties"),
+                "systemProp.user.home=" + home.getAbsolutePath().replace('\\', '/') + "\n"
+                        + "mavenSettings.prefetch=true\n");
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(),
+                """
+                        plugins {
+                          id('io.github.joaojunceira.gradle-mvn-settings')
+                        }
+                        tasks.register('listRepos') {
+                          def lines = repositories.collect { 'Repo: ' + it.name + ' -> ' + it.url }
+                          doLast {
+                            lines.each { println it }
+                          }
+                        }""");
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments("listRepos", "mavenSettingsReport", "-PmavenSettings.cache=false");
+        runner.withProjectDir(projectDir);
+
+        // Act
+        BuildResult result = runner.build();
+
+        // Assert
+        assertTrue(result.getOutput().contains("Repo: default-repo -> https://default.example.com/maven2"));
+        String json = Files.readString(new File(projectDir, "build/reports/mvn-settings/report.json").toPath());
+        assertTrue(json.contains("\"planPrefetchHits\": 1"));
+    }
+
+    @Test
+    void prefetchStartsOverWhenTheBuildScriptChangesTheSettingsFile() throws IOException {
+        // Arrange
+        writeString(getMavenSettingsFile(), singleRepositorySettings("my-repo", "https://repo.mycompany.com/maven2"));
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(), CONFIGURATION_CACHE_BUILD);
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments("listRepos", "mavenSettingsReport", "-PmavenSettings.cache=false",
+                "-PmavenSettings.prefetch=true");
+        runner.withProjectDir(projectDir);
+
+        // Act
+        BuildResult result = runner.build();
+
+        // Assert
+        assertTrue(result.getOutput().contains("Repo: my-repo -> https://repo.mycompany.com/maven2"));
+        String json = Files.readString(new File(projectDir, "build/reports/mvn-settings/report.json").toPath());
+        assertTrue(json.contains("\"planPrefetchHits\": 0"));
+    }
+
+    @Test
+    void settingsPluginReportsInRootProject() throws IOException {
+        writeString(getMavenSettingsFile(), singleRepositorySettings("report-repo", "https://report.example.com/maven2"));
+        writeString(getSettingsFile(),
+                """
+                        plugins {
+                          id('io.github.joaojunceira.gradle-mvn-settings.settings')
+                        }
+                        mavenSettings {
+                          userSettingsFile = file('settings.xml')
+                        }""");
+        writeString(getBuildFile(), "");
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments("mavenSettingsReport", "-PmavenSettings.cache=false");
+        runner.withProjectDir(projectDir);
+        BuildResult result = runner.build();
+
+        assertTrue(result.getOutput().contains("Maven settings report"));
+        assertTrue(new File(projectDir, "build/reports/mvn-settings/report.json").isFile());
+    }
+
+    @Test
+    void probesRepositoriesAndOrdersThemByLatency() throws IOException {
+        // Arrange
+        HttpServer slow = startRepositoryServer(400);
+        HttpServer fast = startRepositoryServer(0);
+        int freePort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            freePort = socket.getLocalPort();
+        }
+        try {
+            writeString(getMavenSettingsFile(), repositoriesSettings(
+                    "slow", "http://127.0.0.1:" + slow.getAddress().getPort() + "/maven2",
+                    "down", "http://127.0.0.1:" + freePort + "/maven2",
+                    "fast", "http://127.0.0.1:" + fast.getAddress().getPort() + "/maven2"));
+            writeString(getSettingsFile(), "");
+            writeString(getBuildFile(),
+                    """
+                            plugins {
+                              id('io.github.joaojunceira.gradle-mvn-settings')
+                            }
+                            mavenSettings {
+                              userSettingsFile = file('settings.xml')
+                              probeRepositories = true
+                              probeTimeout = java.time.Duration.ofSeconds(5)
+                              skipUnreachableRepositories = true
+                              orderInsensitive('slow', 'fast')
+                            }
+                            tasks.register('listRepos') {
+                              def lines = repositories.collect { 'Repo: ' + it.name }
+                              doLast {
+                                lines.each { println it }
+                              }
+                            }""");
+
+            GradleRunner runner = GradleRunner.create();
+            runner.forwardOutput();
+            runner.withPluginClasspath();
+            runner.withArguments("listRepos", "-PmavenSettings.cache=false");
+            runner.withProjectDir(projectDir);
+
+            // Act
+            BuildResult result = runner.build();
+
+            // Assert
+            String output = result.getOutput();
+            assertTrue(output.contains("Maven repository 'down'"));
+            assertFalse(output.contains("Repo: down"));
+            assertTrue(output.indexOf("Repo: fast") >= 0);
+            assertTrue(output.indexOf("Repo: fast") < output.indexOf("Repo: slow"));
+
+            // A skipped repository would stay skipped for as long as the cache entry is reused
+            BuildResult cached = runner.withArguments("listRepos", "--configuration-cache",
+                    "-PmavenSettings.cache=false").build();
+            assertTrue(cached.getOutput().contains("mavenSettings.skipUnreachableRepositories is ignored"));
+            assertTrue(cached.getOutput().contains("Repo: down"));
+        } finally {
+            slow.stop(0);
+            fast.stop(0);
+        }
+    }
+
+    @Test
+    void registersIndexedLocalRepositoryFirst() throws IOException {
+        // Arrange: the local repository only holds the pom of org.other:tool, as left by some Maven builds
+        File localRepo = new File(projectDir, "local-repo");
+        File remoteRepo = new File(projectDir, "remote-repo");
+        publishModule(localRepo, "com.acme", "lib", "1.0");
+        publishModule(remoteRepo, "org.other", "tool", "2.0");
+        publishModule(localRepo, "org.other", "tool", "2.0");
+        Files.delete(new File(localRepo, "org/other/tool/2.0/tool-2.0.jar").toPath());
+        writeString(getMavenSettingsFile(), singleRepositorySettings("remote", remoteRepo.toURI().toString())
+                .replace("<settings>", "<settings><localRepository>" + localRepo.getAbsolutePath() + "</localRepository>"));
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(), LOCAL_REPOSITORY_BUILD);
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments("resolve", "--info", "-PmavenSettings.cache=false");
+        runner.withProjectDir(projectDir);
+
+        // Act
+        BuildResult result = runner.build();
+
+        // Assert
+        String output = result.getOutput();
+        assertTrue(output.contains("Indexed 2 modules in Maven local repository"));
+        assertTrue(output.contains("Repositories: [mavenSettingsLocal, remote]"));
+        assertTrue(output.contains("Resolved: " + new File(localRepo, "com/acme/lib/1.0/lib-1.0.jar").getPath()));
+        assertTrue(output.contains("Resolved: " + new File(remoteRepo, "org/other/tool/2.0/tool-2.0.jar").getPath()));
+    }
+
+    @Test
+    void invalidatesConfigurationCacheWhenTheLocalRepositoryChanges() throws IOException {
+        // Arrange
+        File localRepo = new File(projectDir, "local-repo");
+        File remoteRepo = new File(projectDir, "remote-repo");
+        publishModule(localRepo, "com.acme", "lib", "1.0");
+        publishModule(remoteRepo, "org.other", "tool", "2.0");
+        writeString(getMavenSettingsFile(), singleRepositorySettings("remote", remoteRepo.toURI().toString())
+                .replace("<settings>", "<settings><localRepository>" + localRepo.getAbsolutePath() + "</localRepository>"));
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(), LOCAL_REPOSITORY_BUILD);
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments("resolve", "--configuration-cache", "-PmavenSettings.cache=false");
+        runner.withProjectDir(projectDir);
+
+        // Act
+        BuildResult first = runner.build();
+        BuildResult unchanged = runner.build();
+        publishModule(localRepo, "org.other", "tool", "2.0");
+        BuildResult installed = runner.build();
+
+        // Assert
+        assertTrue(first.getOutput().contains("Configuration cache entry stored"));
+        assertTrue(unchanged.getOutput().contains("Reusing configuration cache"));
+        assertFalse(installed.getOutput().contains("Reusing configuration cache"));
+        assertTrue(installed.getOutput().contains(
+                "Resolved: " + new File(localRepo, "org/other/tool/2.0/tool-2.0.jar").getPath()));
+    }
+
+    @Test
+    void routesDeclaredRepositoriesThroughMirrors() throws IOException {
+        // Arrange
+        File mirrorRepo = new File(projectDir, "mirror-repo");
+        publishModule(mirrorRepo, "com.acme", "lib", "1.0");
+        writeString(getMavenSettingsFile(), """
+                <settings>\
+                  <mirrors>\
+                    <mirror>\
+                      <id>corporate</id>\
+                      <mirrorOf>*,!internal</mirrorOf>\
+                      <url>%s</url>\
+                    </mirror>\
+                  </mirrors>\
+                </settings>""".formatted(mirrorRepo.toURI()));
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(),
+                """
+                        plugins {
+                          id('io.github.joaojunceira.gradle-mvn-settings')
+                        }
+                        mavenSettings {
+                          userSettingsFile = file('settings.xml')
+                        }
+                        repositories {
+                          mavenCentral()
+                          maven {
+                            name = 'internal'
+                            url = 'https://internal.example.com/maven2'
+                          }
+                        }
+                        configurations {
+                          deps
+                        }
+                        dependencies {
+                          deps 'com.acme:lib:1.0'
+                        }
+                        task resolve {
+                          doLast {
+                            repositories.each { println 'Repo: ' + it.name + ' -> ' + it.url }
+                            configurations.deps.files.each { println 'Resolved: ' + it.path }
+                          }
+                        }""");
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments("resolve", "--info", "-PmavenSettings.cache=false");
+        runner.withProjectDir(projectDir);
+
+        // Act
+        BuildResult result = runner.build();
+
+        // Assert
+        String output = result.getOutput();
+        assertTrue(output.contains("Maven repository 'MavenRepo' (https://repo.maven.apache.org/maven2/) is mirrored by 'corporate'"));
+        assertTrue(output.contains("Repo: MavenRepo -> " + mirrorRepo.toURI()));
+        assertTrue(output.contains("Repo: internal -> https://internal.example.com/maven2"));
+        assertTrue(output.contains("Resolved: " + mirrorRepo.getAbsolutePath()));
+    }
+
+    @Test
+    void appliesServerHttpConfiguration() throws IOException {
+        // Arrange
+        writeString(getMavenSettingsFile(), repositoriesSettings(
+                "secured", "https://secured.example.com/maven2",
+                "other", "https://other.example.com/maven2",
+                "both", "https://both.example.com/maven2")
+                .replace("<profiles>", """
+                        <servers>\
+                          <server>\
+                            <id>secured</id>\
+                            <configuration>\
+                              <connectTimeout>5000</connectTimeout>\
+                              <requestTimeout>60000</requestTimeout>\
+                              <httpHeaders>\
+                                <property>\
+                                  <name>Authorization</name>\
+                                  <value>Bearer secret-token</value>\
+                                </property>\
+                              </httpHeaders>\
+                            </configuration>\
+                          </server>\
+                          <server>\
+                            <id>other</id>\
+                            <configuration>\
+                              <httpConfiguration>\
+                                <all>\
+                                  <connectionTimeout>20000</connectionTimeout>\
+                                  <retryHandler><count>5</count></retryHandler>\
+                                </all>\
+                              </httpConfiguration>\
+                            </configuration>\
+                          </server>\
+                          <server>\
+                            <id>both</id>\
+                            <username>deployer</username>\
+                            <password>secret</password>\
+                            <configuration>\
+                              <httpHeaders>\
+                                <property><name>X-Token</name><value>token</value></property>\
+                              </httpHeaders>\
+                            </configuration>\
+                          </server>\
+                        </servers>\
+                        <profiles>"""));
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(),
+                """
+                        plugins {
+                          id('io.github.joaojunceira.gradle-mvn-settings')
+                        }
+                        mavenSettings {
+                          userSettingsFile = file('settings.xml')
+                        }
+                        task transport {
+                          doLast {
+                            def secured = repositories.getByName('secured')
+                            def header = secured.getCredentials(HttpHeaderCredentials)
+                            println 'Header: ' + header.name + ': ' + header.value
+                            println 'Authentication: ' + secured.authentication*.name
+                            println 'Other authentication: ' + repositories.getByName('other').authentication*.name
+                            println 'Both authentication: ' + repositories.getByName('both').authentication*.name
+                            ['connectionTimeout', 'socketTimeout'].each {
+                              println it + ': ' + System.getProperty('org.gradle.internal.http.' + it)
+                            }
+                            println 'attempts: ' + System.getProperty('org.gradle.internal.network.retry.max.attempts')
+                          }
+                        }""");
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments("transport", "--info", "-PmavenSettings.cache=false");
+        runner.withProjectDir(projectDir);
+
+        // Act
+        BuildResult result = runner.build();
+
+        // Assert
+        String output = result.getOutput();
+        assertTrue(output.contains("Header: Authorization: Bearer secret-token"));
+        assertTrue(output.contains("Authentication: [header]"));
+        assertTrue(output.contains("Other authentication: []"));
+        assertTrue(output.contains("Both authentication: [basic]"));
+        assertTrue(output.contains("'both' uses basic authentication without the headers"));
+        assertTrue(output.contains("Maven servers [other, secured] configure HTTP timeouts or retries"));
+        assertTrue(output.contains("connect timeout: 5000 ms [secured], 20000 ms [other]"));
+        assertTrue(output.contains("connectionTimeout: null"));
+        assertTrue(output.contains("socketTimeout: null"));
+        assertTrue(output.contains("attempts: null"));
+    }
+
+    @Test
+    void rejectsServersWithSeveralHeadersOnly() throws IOException {
+        // Arrange
+        writeString(getMavenSettingsFile(), singleRepositorySettings("secured", "https://secured.example.com/maven2")
+                .replace("<profiles>", """
+                        <servers>\
+                          <server>\
+                            <id>secured</id>\
+                            <configuration>\
+                              <httpHeaders>\
+                                <property><name>Authorization</name><value>Bearer token</value></property>\
+                                <property><name>X-Tenant</name><value>acme</value></property>\
+                              </httpHeaders>\
+                            </configuration>\
+                          </server>\
+                        </servers>\
+                        <profiles>"""));
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(),
+                """
+                        plugins {
+                          id('io.github.joaojunceira.gradle-mvn-settings')
+                        }
+                        mavenSettings {
+                          userSettingsFile = file('settings.xml')
+                        }""");
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments("help", "-PmavenSettings.cache=false");
+        runner.withProjectDir(projectDir);
+
+        // Act
+        BuildResult result = runner.build();
+
+        // Assert
+        assertTrue(result.getOutput().contains("Failed to load Maven settings"));
+        assertTrue(result.getOutput().contains("Maven server 'secured' declares HTTP headers [Authorization, X-Tenant]"));
+    }
+
+    private static final String LOCAL_REPOSITORY_BUILD =
+            """
+                    plugins {
+                      id('io.github.joaojunceira.gradle-mvn-settings')
+                    }
+                    mavenSettings {
+                      userSettingsFile = file('settings.xml')
+                      useLocalRepository = true
+                    }
+                    configurations {
+                      deps
+                    }
+                    dependencies {
+                      deps 'com.acme:lib:1.0'
+                      deps 'org.other:tool:2.0'
+                    }
+                    def names = provider { repositories*.name }
+                    def files = configurations.deps
+                    tasks.register('resolve') {
+                      doLast {
+                        println 'Repositories: ' + names.get()
+                        files.each { println 'Resolved: ' + it.path }
+                      }
+                    }""";
+
+    private static final String CONFIGURATION_CACHE_BUILD =
+            """
+                    plugins {
+                      id('io.github.joaojunceira.gradle-mvn-settings')
+                    }
+                    mavenSettings {
+                      userSettingsFile = file('settings.xml')
+                    }
+                    tasks.register('listRepos') {
+                      def lines = repositories.collect { 'Repo: ' + it.name + ' -> ' + it.url }
+                      doLast {
+                        lines.each { println it }
+                      }
+                    }""";
+
+    private String singleRepositorySettings(String id, String url) {
+        return """
+                <settings>\
+                  <profiles>\
+                    <profile>\
+                      <id>cc-profile</id>\
+                      <repositories>\
+                        <repository>\
+                          <id>%s</id>\
+                          <url>%s</url>\
+                        </repository>\
+                      </repositories>\
+                    </profile>\
+                  </profiles>\
+                  <activeProfiles>\
+                    <activeProfile>cc-profile</activeProfile>\
+                  </activeProfiles>\
+                </settings>""".formatted(id, url);
+    }
+
+    private String repositoriesSettings(String... idsAndUrls) {
+        StringBuilder repositories = new StringBuilder();
+        for (int i = 0; i < idsAndUrls.length; i += 2) {
+            repositories.append("<repository><id>").append(idsAndUrls[i]).append("</id><url>")
+                    .append(idsAndUrls[i + 1]).append("</url></repository>");
+        }
+        return singleRepositorySettings("placeholder", "https://placeholder.example.com").replaceFirst(
+                "<repository>.*</repository>", repositories.toString());
+    }
+
+    private HttpServer startRepositoryServer(long delayMillis) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    @Test
+    void exportsSnapshotForBuildsWithoutSettingsFiles() throws IOException {
+        writeString(getMavenSettingsFile(),
+                """
+                        <settings>\
+                          <servers>\
+                            <server>\
+                              <id>snapshot-repo</id>\
+                              <username>user</username>\
+                              <password>exported-nowhere</password>\
+                            </server>\
+                          </servers>\
+                          <profiles>\
+                            <profile>\
+                              <id>snapshot-profile</id>\
+                              <repositories>\
+                                <repository>\
+                                  <id>snapshot-repo</id>\
+                                  <url>https://snapshot.example.com/maven2</url>\
+                                </repository>\
+                              </repositories>\
+                            </profile>\
+                          </profiles>\
+                          <activeProfiles>\
+                            <activeProfile>snapshot-profile</activeProfile>\
+                          </activeProfiles>\
+                        </settings>""");
+        writeString(getSettingsFile(), "");
+        writeString(getBuildFile(),
+                """
+                        plugins {
+                          id('io.github.joaojunceira.gradle-mvn-settings')
+                        }
+                        mavenSettings {
+                          userSettingsFile = file('settings.xml')
+                          if (providers.gradleProperty('fromSnapshot').isPresent()) {
+                            snapshotFile = file('build/mvn-settings/snapshot.bin')
+                          }
+                        }
+                        task listCredentials {
+                          doLast {
+                            repositories.each { println 'Repo: ' + it.url + ' User: ' + it.credentials.username + ' Pass: ' + it.credentials.password }
+                          }
+                        }
+                        tasks.register('listPasswords') {
+                          def lines = repositories.collect { 'Password: ' + it.credentials.password }
+                          doLast {
+                            lines.each { println it }
+                          }
+                        }""");
+
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withProjectDir(projectDir);
+
+        BuildResult exported = runner.withArguments("exportMavenSettingsSnapshot").build();
+        assertTrue(exported.getOutput().contains("MAVEN_SERVER_SNAPSHOT_REPO_PASSWORD"));
+        File snapshot = new File(projectDir, "build/mvn-settings/snapshot.bin");
+        assertTrue(snapshot.isFile());
+        assertFalse(Files.readString(snapshot.toPath(), StandardCharsets.ISO_8859_1)
+                .contains("exported-nowhere"));
+
+        assertTrue(getMavenSettingsFile().delete());
+        Map<String, String> environment = new HashMap<>(System.getenv());
+        environment.put("MAVEN_SERVER_SNAPSHOT_REPO_PASSWORD", "from-environment");
+        BuildResult loaded = runner.withEnvironment(environment)
+                .withArguments("listCredentials", "--info", "-PfromSnapshot").build();
+        assertTrue(loaded.getOutput().contains("Loaded Maven settings snapshot"));
+        assertFalse(loaded.getOutput().contains("Resolved Maven settings"));
+        assertTrue(loaded.getOutput().contains(
+                "Repo: https://snapshot.example.com/maven2 User: user Pass: from-environment"));
+
+        // The variables the snapshot reads its secrets from are configuration cache inputs
+        runner.withArguments("listPasswords", "-PfromSnapshot", "--configuration-cache").build();
+        environment.put("MAVEN_SERVER_SNAPSHOT_REPO_PASSWORD", "rotated");
+        BuildResult rotated = runner.withEnvironment(environment)
+                .withArguments("listPasswords", "-PfromSnapshot", "--configuration-cache").build();
+        assertFalse(rotated.getOutput().contains("Reusing configuration cache"));
+        assertTrue(rotated.getOutput().contains("Password: rotated"));
+    }
+
+    private void publishModule(File repo, String group, String name, String version) throws IOException {
+        File dir = new File(repo, group.replace('.', '/') + "/" + name + "/" + version);
+        dir.mkdirs();
+        writeString(new File(dir, name + "-" + version + ".pom"),
+                """
+                        <project>\
+                          <modelVersion>4.0.0</modelVersion>\
+                          <groupId>%s</groupId>\
+                          <artifactId>%s</artifactId>\
+                          <version>%s</version>\
+                        </project>""".formatted(group, name, version));
+        writeString(new File(dir, name + "-" + version + ".jar"), "");
+    }
+
+    private int countOccurrences(String text, String token) {
+        int count = 0;
+        int index = text.indexOf(token);
+        while (index >= 0) {
+            count++;
+            index = text.indexOf(token, index + token.length());
+        }
+        return count;
+    }
+
     private void writeString(File file, String string) throws IOException {
         try (Writer writer = new FileWriter(file)) {
             writer.write(string);
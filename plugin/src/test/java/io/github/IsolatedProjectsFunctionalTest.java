@@ -0,0 +1,236 @@
+package io.github;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.gradle.testkit.runner.BuildResult;
+import org.gradle.testkit.runner.GradleRunner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs multi-project builds with isolated projects, which also configures projects in parallel, and checks
+ * that they configure the same repositories as without it.
+ */
+class IsolatedProjectsFunctionalTest {
+
+    private static final String ISOLATED_PROJECTS = "-Dorg.gradle.unsafe.isolated-projects=true";
+    private static final String[] PROJECTS = { "a", "b", "c", "d" };
+
+    @TempDir
+    File projectDir;
+
+    private void writeString(File file, String string) throws IOException {
+        file.getParentFile().mkdirs();
+        Files.writeString(file.toPath(), string);
+    }
+
+    private void writeMavenSettings() throws IOException {
+        File repo = new File(projectDir, "repo");
+        File dir = new File(repo, "com/acme/lib/1.0");
+        dir.mkdirs();
+        writeString(new File(dir, "lib-1.0.pom"),
+                """
+                        <project>\
+                          <modelVersion>4.0.0</modelVersion>\
+                          <groupId>com.acme</groupId>\
+                          <artifactId>lib</artifactId>\
+                          <version>1.0</version>\
+                        </project>""");
+        writeString(new File(dir, "lib-1.0.jar"), "");
+        writeString(new File(projectDir, "settings.xml"),
+                """
+                        <settings>\
+                          <mirrors>\
+                            <mirror>\
+                              <id>project-mirror</id>\
+                              <mirrorOf>project-repo</mirrorOf>\
+                              <url>%s</url>\
+                            </mirror>\
+                          </mirrors>\
+                          <profiles>\
+                            <profile>\
+                              <id>my-profile</id>\
+                              <repositories>\
+                                <repository>\
+                                  <id>empty-repo</id>\
+                                  <url>%s</url>\
+                                </repository>\
+                                <repository>\
+                                  <id>my-repo</id>\
+                                  <url>%s</url>\
+                                </repository>\
+                              </repositories>\
+                            </profile>\
+                          </profiles>\
+                          <activeProfiles>\
+                            <activeProfile>my-profile</activeProfile>\
+                          </activeProfiles>\
+                        </settings>""".formatted(repo.toURI(), new File(projectDir, "empty").toURI(), repo.toURI()));
+        new File(projectDir, "empty").mkdirs();
+    }
+
+    private GradleRunner runner(String... arguments) {
+        List<String> args = new ArrayList<>(List.of(arguments));
+        args.add("-PmavenSettings.cache=false");
+        GradleRunner runner = GradleRunner.create();
+        runner.forwardOutput();
+        runner.withPluginClasspath();
+        runner.withArguments(args);
+        runner.withProjectDir(projectDir);
+        return runner;
+    }
+
+    private List<String> linesStartingWith(BuildResult result, String prefix) {
+        List<String> lines = new ArrayList<>();
+        for (String line : result.getOutput().split("\\R")) {
+            if (line.startsWith(prefix)) {
+                lines.add(line);
+            }
+        }
+        lines.sort(null);
+        return lines;
+    }
+
+    @Test
+    void projectPluginSupportsIsolatedProjects() throws IOException {
+        // Arrange
+        writeMavenSettings();
+        writeString(new File(projectDir, "settings.gradle"), "include('a', 'b', 'c', 'd')");
+        writeString(new File(projectDir, "build.gradle"), "");
+        for (String project : PROJECTS) {
+            writeString(new File(projectDir, project + "/build.gradle"),
+                    """
+                            plugins {
+                              id('io.github.joaojunceira.gradle-mvn-settings')
+                            }
+                            mavenSettings {
+                              userSettingsFile = layout.settingsDirectory.file('settings.xml')
+                              routeGroup('com.acme', 'my-repo')
+                            }
+                            def deps = configurations.create('deps')
+                            dependencies.add('deps', 'com.acme:lib:1.0')
+                            def repos = provider { repositories.collect { it.name } }
+                            def files = deps
+                            tasks.register('resolve') {
+                              def projectName = project.name
+                              doLast {
+                                println "Repos ${projectName}: ${repos.get()}"
+                                files.each { println "Resolved ${projectName}: ${it.name}" }
+                              }
+                            }""");
+        }
+
+        // Act
+        BuildResult isolated = runner("resolve", ISOLATED_PROJECTS).build();
+        BuildResult classic = runner("resolve", "mavenSettingsReport", "--no-configuration-cache").build();
+
+        // Assert
+        assertFalse(isolated.getOutput().contains("problems were found"), "isolated projects problems reported");
+        assertEquals(linesStartingWith(classic, "Repos "), linesStartingWith(isolated, "Repos "));
+        assertEquals(linesStartingWith(classic, "Resolved "), linesStartingWith(isolated, "Resolved "));
+        assertEquals(PROJECTS.length, linesStartingWith(isolated, "Resolved ").size());
+    }
+
+    @Test
+    void settingsPluginSupportsIsolatedProjects() throws IOException {
+        // Arrange
+        writeMavenSettings();
+        writeString(new File(projectDir, "settings.gradle"),
+                """
+                        plugins {
+                          id('io.github.joaojunceira.gradle-mvn-settings.settings')
+                        }
+                        mavenSettings {
+                          userSettingsFile = file('settings.xml')
+                          routeGroup('com.acme', 'my-repo')
+                        }
+                        include('a', 'b', 'c', 'd')""");
+        writeString(new File(projectDir, "build.gradle"), "");
+        for (String project : PROJECTS) {
+            writeString(new File(projectDir, project + "/build.gradle"),
+                    """
+                            repositories.maven {
+                              it.name = 'project-repo'
+                              it.url = 'https://project-repo.invalid/maven2'
+                            }
+                            def files = configurations.create('deps')
+                            dependencies.add('deps', 'com.acme:lib:1.0')
+                            tasks.register('resolve') {
+                              def projectName = project.name
+                              doLast {
+                                files.each { println "Resolved ${projectName}: ${it.name}" }
+                              }
+                            }""");
+        }
+
+        // Act
+        BuildResult isolated = runner("resolve", "mavenSettingsReport", ISOLATED_PROJECTS).build();
+        BuildResult classic = runner("resolve", "--no-configuration-cache").build();
+
+        // Assert
+        assertFalse(isolated.getOutput().contains("problems were found"), "isolated projects problems reported");
+        assertTrue(isolated.getOutput().contains("Maven settings report"));
+        assertEquals(linesStartingWith(classic, "Resolved "), linesStartingWith(isolated, "Resolved "));
+        assertEquals(PROJECTS.length, linesStartingWith(isolated, "Resolved ").size());
+    }
+
+    @Test
+    void leavesJvmSystemPropertiesUntouched() throws IOException {
+        // Arrange
+        writeMavenSettings();
+        File settingsXml = new File(projectDir, "settings.xml");
+        writeString(settingsXml, Files.readString(settingsXml.toPath()).replace("<mirrors>", """
+                <proxies>\
+                  <proxy>\
+                    <id>corporate</id>\
+                    <protocol>https</protocol>\
+                    <host>proxy.example.com</host>\
+                    <port>3128</port>\
+                  </proxy>\
+                </proxies>\
+                <servers>\
+                  <server>\
+                    <id>my-repo</id>\
+                    <configuration><connectTimeout>5000</connectTimeout></configuration>\
+                  </server>\
+                </servers>\
+                <mirrors>"""));
+        writeString(new File(projectDir, "settings.gradle"), "include('a', 'b', 'c', 'd')");
+        writeString(new File(projectDir, "build.gradle"), "");
+        for (String project : PROJECTS) {
+            writeString(new File(projectDir, project + "/build.gradle"),
+                    """
+                            plugins {
+                              id('io.github.joaojunceira.gradle-mvn-settings')
+                            }
+                            mavenSettings {
+                              userSettingsFile = layout.settingsDirectory.file('settings.xml')
+                            }
+                            tasks.register('printProperties') {
+                              def projectName = project.name
+                              doLast {
+                                def names = ['https.proxyHost', 'https.proxyPort',
+                                             'org.gradle.internal.http.connectionTimeout']
+                                println "Properties ${projectName}: ${names.collect { System.getProperty(it) }}"
+                              }
+                            }""");
+        }
+
+        // Act
+        BuildResult result = runner("printProperties", ISOLATED_PROJECTS).build();
+
+        // Assert
+        assertFalse(result.getOutput().contains("problems were found"), "isolated projects problems reported");
+        assertTrue(result.getOutput().contains("systemProp.https.proxyHost=proxy.example.com"));
+        assertTrue(result.getOutput().contains("Maven servers [my-repo] configure HTTP timeouts or retries"));
+        List<String> properties = linesStartingWith(result, "Properties ");
+        assertEquals(PROJECTS.length, properties.size());
+        properties.forEach(line -> assertTrue(line.endsWith(": [null, null, null]"), line));
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.cache;
+
+import io.github.plan.RepositoryPlan;
+import io.github.plan.ResolvedMirror;
+import io.github.plan.ResolvedProxy;
+import io.github.plan.ResolvedRepository;
+import io.github.plan.ServerCredentials;
+import io.github.plan.ServerTransport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanDiskCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private RepositoryPlan samplePlan() {
+        return new RepositoryPlan(List.of(
+                new ResolvedRepository("nexus", "https://nexus.example.com/maven2", List.of("central", "snapshots"),
+                        new ServerCredentials("nexus", "user", "{encrypted}")),
+                new ResolvedRepository("plain", "https://plain.example.com", List.of("plain"), null)),
+                List.of(new ResolvedProxy("proxy", "http", "proxy.example.com", 8080, null, null, "localhost|*.internal")), 2,
+                "/opt/maven/repository",
+                List.of(new ResolvedMirror("nexus", "https://nexus.example.com/maven2", "external:*,!snapshots",
+                        new ServerCredentials("nexus", "user", "{encrypted}",
+                                new ServerTransport(5000, null, 2, Map.of("Authorization", "Bearer token"))))));
+    }
+
+    @Test
+    void load_returnsNullOnMiss() {
+        // Arrange
+        PlanDiskCache cache = new PlanDiskCache(tempDir.resolve("plans"));
+
+        // Act & Assert
+        assertNull(cache.load("missing"));
+    }
+
+    @Test
+    void storeAndLoad_roundTripsPlan() {
+        // Arrange
+        PlanDiskCache cache = new PlanDiskCache(tempDir.resolve("plans"));
+
+        // Act
+        cache.store("abc", samplePlan());
+        RepositoryPlan loaded = cache.load("abc");
+
+        // Assert
+        assertNotNull(loaded);
+        assertEquals(2, loaded.getRepositories().size());
+        ResolvedRepository nexus = loaded.getRepositories().get(0);
+        assertEquals("nexus", nexus.getId());
+        assertEquals("https://nexus.example.com/maven2", nexus.getUrl());
+        assertEquals(List.of("central", "snapshots"), nexus.getSourceIds());
+        assertEquals("user", nexus.getCredentials().getUsername());
+        assertEquals("{encrypted}", nexus.getCredentials().getPassword());
+        assertNull(loaded.getRepositories().get(1).getCredentials());
+        assertEquals("proxy.example.com", loaded.getProxies().get(0).getHost());
+        assertEquals(8080, loaded.getProxies().get(0).getPort());
+        assertNull(loaded.getProxies().get(0).getUsername());
+        assertEquals("localhost|*.internal", loaded.getProxies().get(0).getNonProxyHosts());
+        assertEquals(2, loaded.getActiveProfileCount());
+        assertEquals("/opt/maven/repository", loaded.getLocalRepository());
+        assertEquals(3, loaded.getDeclaredRepositoryCount());
+        ResolvedMirror mirror = loaded.getMirrors().get(0);
+        assertEquals("external:*,!snapshots", mirror.getMirrorOf());
+        assertEquals("https://nexus.example.com/maven2", mirror.getUrl());
+        assertEquals("{encrypted}", mirror.getCredentials().getPassword());
+        ServerTransport transport = mirror.getCredentials().getTransport();
+        assertEquals(Integer.valueOf(5000), transport.getConnectTimeout());
+        assertNull(transport.getReadTimeout());
+        assertEquals(Integer.valueOf(2), transport.getRetryCount());
+        assertEquals(Map.of("Authorization", "Bearer token"), transport.getHeaders());
+        assertNull(nexus.getCredentials().getTransport());
+    }
+
+    @Test
+    void store_leavesNoTemporaryFiles() throws IOException {
+        // Arrange
+        Path directory = tempDir.resolve("plans");
+        PlanDiskCache cache = new PlanDiskCache(directory);
+
+        // Act
+        cache.store("abc", samplePlan());
+        cache.store("abc", samplePlan());
+
+        // Assert
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void load_ignoresCorruptEntries() throws IOException {
+        // Arrange
+        Path directory = tempDir.resolve("plans");
+        PlanDiskCache cache = new PlanDiskCache(directory);
+        cache.store("abc", samplePlan());
+        try (Stream<Path> files = Files.list(directory)) {
+            Path entry = files.findFirst().orElseThrow();
+            Files.write(entry, new byte[] { 1, 2, 3 });
+        }
+
+        // Act & Assert
+        assertNull(cache.load("abc"));
+    }
+
+    @Test
+    void store_keepsEnvironmentSecretsOutOfTheEntry() throws IOException {
+        // Arrange
+        Path directory = tempDir.resolve("plans");
+        PlanDiskCache cache = new PlanDiskCache(directory);
+        RepositoryPlan plan = new RepositoryPlan(List.of(
+                new ResolvedRepository("nexus", "https://nexus.example.com", List.of("nexus"),
+                        new ServerCredentials("nexus", "user", "pre-s3cret-token"))),
+                List.of(), 1, null, List.of());
+
+        // Act
+        cache.store("abc", plan, Map.of("TOKEN", "s3cret-token", "SHORT", "s3cret"));
+        RepositoryPlan loaded = cache.load("abc", Map.of("TOKEN", "rotated")::get);
+
+        // Assert
+        try (Stream<Path> files = Files.list(directory)) {
+            String content = new String(Files.readAllBytes(files.findFirst().orElseThrow()), StandardCharsets.UTF_8);
+            assertFalse(content.contains("s3cret"));
+            assertTrue(content.contains("pre-${env.TOKEN}"));
+        }
+        assertEquals("pre-rotated", loaded.getRepositories().get(0).getCredentials().getPassword());
+    }
+
+    @Test
+    void store_prunesEntriesBeyondTheLimit() throws IOException {
+        // Arrange
+        Path directory = tempDir.resolve("plans");
+        PlanDiskCache cache = new PlanDiskCache(directory, 2, Duration.ofDays(30));
+        cache.store("first", samplePlan());
+        cache.store("second", samplePlan());
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.setLastModifiedTime(file, FileTime.from(Instant.now().minusSeconds(60)));
+            }
+        }
+        assertNotNull(cache.load("first"));
+
+        // Act
+        cache.store("third", samplePlan());
+
+        // Assert
+        assertNotNull(cache.load("first"));
+        assertNull(cache.load("second"));
+        assertNotNull(cache.load("third"));
+    }
+
+    @Test
+    void store_prunesOldEntries() throws IOException {
+        // Arrange
+        Path directory = tempDir.resolve("plans");
+        PlanDiskCache cache = new PlanDiskCache(directory, 32, Duration.ofDays(30));
+        cache.store("old", samplePlan());
+        try (Stream<Path> files = Files.list(directory)) {
+            Files.setLastModifiedTime(files.findFirst().orElseThrow(),
+                    FileTime.from(Instant.now().minus(Duration.ofDays(31))));
+        }
+
+        // Act
+        cache.store("new", samplePlan());
+
+        // Assert
+        assertNull(cache.load("old"));
+        assertNotNull(cache.load("new"));
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.crypto;
+
+import org.junit.jupiter.api.Test;
+import org.sonatype.plexus.components.cipher.DefaultPlexusCipher;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MavenCipherTest {
+
+    // Written by plexus-cipher 2.0, the implementation behind mvn --encrypt-password
+    private static final String ENCRYPTED_MASTER = "6KDnDp70ZD8H+c0sXNj7b6T9lvcIsgccn03E6OHBO80=";
+    private static final String ENCRYPTED_SERVER_PASSWORD =
+            "akri52um2pMHDHrMcepIzuVvjDfxdbbMtnn8krmxBtWPK9XE/jCFYjQviEwuWcTQ";
+
+    private final DefaultPlexusCipher plexus = new DefaultPlexusCipher();
+    private final MavenCipher cipher = new MavenCipher();
+
+    @Test
+    void decrypt_knownVectors() throws Exception {
+        assertEquals("master-secret", cipher.decrypt(ENCRYPTED_MASTER, "settings.security"));
+        assertEquals("s3cr\u00e9t with spaces", cipher.decrypt(ENCRYPTED_SERVER_PASSWORD, "master-secret"));
+    }
+
+    @Test
+    void decrypt_matchesPlexusForRandomValues() throws Exception {
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            String password = randomString(random, 1 + random.nextInt(40));
+            String value = randomString(random, 1 + random.nextInt(100));
+            String encrypted = plexus.encrypt(value, password);
+
+            assertEquals(plexus.decrypt(encrypted, password), cipher.decrypt(encrypted, password));
+            assertEquals(value, cipher.decrypt(encrypted, password));
+        }
+    }
+
+    @Test
+    void decrypt_ignoresLineBreaksLikePlexus() throws Exception {
+        String wrapped = ENCRYPTED_SERVER_PASSWORD.substring(0, 20) + "\n  " + ENCRYPTED_SERVER_PASSWORD.substring(20);
+
+        assertEquals(plexus.decrypt(wrapped, "master-secret"), cipher.decrypt(wrapped, "master-secret"));
+    }
+
+    @Test
+    void decrypt_rejectsWrongPasswordsAndMalformedValues() {
+        assertThrows(MavenCipherException.class, () -> cipher.decrypt(ENCRYPTED_MASTER, "wrong"));
+        assertThrows(MavenCipherException.class, () -> cipher.decrypt("not-a-valid-value", "settings.security"));
+        assertThrows(MavenCipherException.class, () -> cipher.decrypt("", "settings.security"));
+    }
+
+    private static String randomString(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            // Mostly ASCII, with some Latin-1 and CJK characters
+            int kind = random.nextInt(10);
+            text.append((char) (kind < 8 ? 32 + random.nextInt(95) : kind == 8 ? 0xC0 + random.nextInt(64)
+                    : 0x4E00 + random.nextInt(500)));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,166 @@
+package io.github.crypto;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonatype.plexus.components.cipher.DefaultPlexusCipher;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MavenPasswordDecryptorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final DefaultPlexusCipher cipher = new DefaultPlexusCipher();
+
+    private File createSecuritySettings(String name, String masterPassword) throws Exception {
+        String master = cipher.encryptAndDecorate(masterPassword, "settings.security");
+        return createFile(name, "<settingsSecurity><master>" + master + "</master></settingsSecurity>");
+    }
+
+    private File createFile(String name, String content) throws IOException {
+        File file = tempDir.resolve(name).toFile();
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(content);
+        }
+        return file;
+    }
+
+    @Test
+    void tryDecrypt_decryptsWithMasterPassword() throws Exception {
+        // Arrange
+        File security = createSecuritySettings("settings-security.xml", "master-secret");
+        String encrypted = cipher.encryptAndDecorate("server-secret", "master-secret");
+        MavenPasswordDecryptor decryptor = new MavenPasswordDecryptor(security);
+
+        // Act
+        DecryptionResult result = decryptor.tryDecrypt(encrypted);
+
+        // Assert
+        assertEquals(DecryptionResult.Status.DECRYPTED, result.getStatus());
+        assertEquals("server-secret", result.getValue());
+        assertNull(System.getProperty("settings.security"));
+    }
+
+    @Test
+    void tryDecrypt_followsRelocation() throws Exception {
+        // Arrange
+        File relocated = createSecuritySettings("relocated-security.xml", "relocated-master");
+        File security = createFile("settings-security.xml",
+                "<settingsSecurity><relocation>" + relocated.getAbsolutePath() + "</relocation></settingsSecurity>");
+        String encrypted = cipher.encryptAndDecorate("server-secret", "relocated-master");
+
+        // Act
+        DecryptionResult result = new MavenPasswordDecryptor(security).tryDecrypt(encrypted);
+
+        // Assert
+        assertEquals("server-secret", result.getValue());
+    }
+
+    @Test
+    void tryDecrypt_reportsRelocationLoops() throws Exception {
+        // Arrange
+        File first = tempDir.resolve("first.xml").toFile();
+        File second = createFile("second.xml",
+                "<settingsSecurity><relocation>" + first.getAbsolutePath() + "</relocation></settingsSecurity>");
+        createFile("first.xml",
+                "<settingsSecurity><relocation>" + second.getAbsolutePath() + "</relocation></settingsSecurity>");
+        String encrypted = cipher.encryptAndDecorate("server-secret", "master-secret");
+
+        // Act
+        DecryptionResult result = new MavenPasswordDecryptor(first).tryDecrypt(encrypted);
+
+        // Assert
+        assertTrue(result.isFailed());
+        assertTrue(result.getFailure().contains("loop"));
+    }
+
+    @Test
+    void tryDecrypt_returnsPlainValuesUnchanged() {
+        // Arrange
+        MavenPasswordDecryptor decryptor = new MavenPasswordDecryptor(null);
+
+        // Act
+        DecryptionResult result = decryptor.tryDecrypt("plain-password");
+
+        // Assert
+        assertEquals(DecryptionResult.Status.PLAIN, result.getStatus());
+        assertEquals("plain-password", result.getValue());
+    }
+
+    @Test
+    void tryDecrypt_reportsMissingSecuritySettings() throws Exception {
+        // Arrange
+        String encrypted = cipher.encryptAndDecorate("server-secret", "master-secret");
+        MavenPasswordDecryptor decryptor = new MavenPasswordDecryptor(new File(tempDir.toFile(), "missing.xml"));
+
+        // Act
+        DecryptionResult result = decryptor.tryDecrypt(encrypted);
+
+        // Assert
+        assertTrue(result.isFailed());
+        assertEquals(encrypted, result.getValue());
+        assertNotNull(result.getFailure());
+    }
+
+    @Test
+    void tryDecrypt_reportsValuesEncryptedWithAnotherMaster() throws Exception {
+        // Arrange
+        File security = createSecuritySettings("settings-security.xml", "master-secret");
+        String encrypted = cipher.encryptAndDecorate("server-secret", "other-master");
+
+        // Act
+        DecryptionResult result = new MavenPasswordDecryptor(security).tryDecrypt(encrypted);
+
+        // Assert
+        assertTrue(result.isFailed());
+    }
+
+    @Test
+    void decrypt_failsFastOnInvalidValues() throws Exception {
+        // Arrange
+        File security = createSecuritySettings("settings-security.xml", "master-secret");
+        MavenPasswordDecryptor decryptor = new MavenPasswordDecryptor(security);
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> decryptor.decrypt("{not-a-valid-value}"));
+    }
+
+    @Test
+    void tryDecrypt_isSafeFromManyThreads() throws Exception {
+        // Arrange
+        File security = createSecuritySettings("settings-security.xml", "master-secret");
+        List<String> encrypted = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            encrypted.add(cipher.encryptAndDecorate("secret-" + i, "master-secret"));
+        }
+        MavenPasswordDecryptor decryptor = new MavenPasswordDecryptor(security);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            // Act
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String value = encrypted.get(i % encrypted.size());
+                results.add(executor.submit(() -> decryptor.decrypt(value)));
+            }
+
+            // Assert
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals("secret-" + (i % encrypted.size()), results.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.local;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalRepositoryIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path install(Path repository, String group, String name, String version, String extension)
+            throws IOException {
+        Path dir = repository.resolve(group.replace('.', '/')).resolve(name).resolve(version);
+        Files.createDirectories(dir);
+        return Files.writeString(dir.resolve(name + "-" + version + extension), "");
+    }
+
+    // Moves every directory out of the window in which modification times are not trusted
+    private void age(Path repository) throws IOException {
+        FileTime past = FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS));
+        try (Stream<Path> paths = Files.walk(repository)) {
+            for (Path path : paths.filter(Files::isDirectory).toList()) {
+                Files.setLastModifiedTime(path, past);
+            }
+        }
+    }
+
+    @Test
+    void update_findsModulesWithArtifacts() throws Exception {
+        // Arrange
+        Path repository = tempDir.resolve("repository");
+        install(repository, "org.example", "lib", "1.0", ".jar");
+        install(repository, "org.example", "lib", "1.1", ".pom");
+        install(repository, "org.example.deep.group", "tool", "2.0-SNAPSHOT", ".module");
+        install(repository, "com.other", "unrelated", "1.0", ".txt");
+        Files.createDirectories(repository.resolve(".cache/org/example/hidden/1.0"));
+        Files.writeString(repository.resolve(".cache/org/example/hidden/1.0/hidden-1.0.jar"), "");
+
+        // Act
+        LocalRepositoryIndex index = LocalRepositoryIndex.update(repository, tempDir.resolve("state.bin"));
+
+        // Assert
+        assertEquals(Set.of("org.example:lib", "org.example.deep.group:tool"), index.getModules());
+    }
+
+    @Test
+    void update_onlyListsModifiedDirectories() throws Exception {
+        // Arrange
+        Path repository = tempDir.resolve("repository");
+        Path state = tempDir.resolve("state.bin");
+        install(repository, "org.example", "lib", "1.0", ".jar");
+        install(repository, "org.example", "other", "1.0", ".jar");
+        age(repository);
+        LocalRepositoryIndex first = LocalRepositoryIndex.update(repository, state);
+
+        // Act
+        LocalRepositoryIndex unchanged = LocalRepositoryIndex.update(repository, state);
+        install(repository, "org.example", "added", "3.0", ".pom");
+        LocalRepositoryIndex changed = LocalRepositoryIndex.update(repository, state);
+
+        // Assert
+        assertEquals(first.getModules(), unchanged.getModules());
+        assertEquals(0, unchanged.getListedDirectories());
+        assertEquals(first.getListedDirectories(), unchanged.getReusedDirectories());
+        assertEquals(List.of("org.example:added", "org.example:lib", "org.example:other"),
+                List.copyOf(changed.getModules()));
+        // org/example and the new directories below it
+        assertEquals(3, changed.getListedDirectories());
+    }
+
+    @Test
+    void update_dropsDeletedModules() throws Exception {
+        // Arrange
+        Path repository = tempDir.resolve("repository");
+        Path state = tempDir.resolve("state.bin");
+        Path jar = install(repository, "org.example", "lib", "1.0", ".jar");
+        install(repository, "org.example", "other", "1.0", ".jar");
+        LocalRepositoryIndex.update(repository, state);
+
+        // Act
+        Files.delete(jar);
+        Files.delete(jar.getParent());
+        LocalRepositoryIndex index = LocalRepositoryIndex.update(repository, state);
+
+        // Assert
+        assertEquals(Set.of("org.example:other"), index.getModules());
+    }
+
+    @Test
+    void update_rescansWhenStateIsCorrupt() throws Exception {
+        // Arrange
+        Path repository = tempDir.resolve("repository");
+        Path state = tempDir.resolve("state.bin");
+        install(repository, "org.example", "lib", "1.0", ".jar");
+        Files.writeString(state, "not an index");
+
+        // Act
+        LocalRepositoryIndex index = LocalRepositoryIndex.update(repository, state);
+
+        // Assert
+        assertEquals(Set.of("org.example:lib"), index.getModules());
+        assertTrue(index.getListedDirectories() > 0);
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.metrics;
+
+import io.github.metrics.SettingsMetrics.Counter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettingsMetricsTest {
+
+    @Test
+    void start_accumulatesTimeAndCallsPerPhase() {
+        // Arrange
+        SettingsMetrics metrics = new SettingsMetrics();
+
+        // Act
+        try (SettingsMetrics.Span span = metrics.start(Phase.PARSE)) {
+            assertNotNull(span);
+        }
+        try (SettingsMetrics.Span span = metrics.start(Phase.PARSE)) {
+            assertNotNull(span);
+        }
+
+        // Assert
+        assertEquals(2, metrics.getCalls(Phase.PARSE));
+        assertTrue(metrics.getNanos(Phase.PARSE) > 0);
+        assertEquals(0, metrics.getCalls(Phase.REGISTRATION));
+    }
+
+    @Test
+    void toJson_listsEveryPhaseAndCounter() {
+        // Arrange
+        SettingsMetrics metrics = new SettingsMetrics();
+        metrics.add(Counter.REPOSITORIES_DECLARED, 3);
+        metrics.increment(Counter.PLAN_DISK_HITS);
+
+        // Act
+        String json = metrics.toJson();
+
+        // Assert
+        assertTrue(json.contains("\"repositoriesDeclared\": 3"));
+        assertTrue(json.contains("\"planDiskHits\": 1"));
+        assertTrue(json.contains("\"mirrorResolution\": {\"nanos\": 0, \"calls\": 0}"));
+    }
+
+    @Test
+    void toText_explainsWhenNothingWasLoaded() {
+        assertTrue(new SettingsMetrics().toText().contains("not loaded in this build"));
+    }
+}
@@ -0,0 +1,269 @@
+package io.github.parser;
+
+import io.github.plan.RepositoryPlan;
+import io.github.plan.RepositoryPlanBuilder;
+import io.github.plan.ResolvedProxy;
+import io.github.plan.ResolvedRepository;
+import org.apache.maven.settings.Mirror;
+import org.apache.maven.settings.Profile;
+import org.apache.maven.settings.Proxy;
+import org.apache.maven.settings.Repository;
+import org.apache.maven.settings.RepositoryPolicy;
+import org.apache.maven.settings.Server;
+import org.apache.maven.settings.Settings;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaxSettingsReaderTest {
+
+    private static final String FULL_SETTINGS = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <settings xmlns="http://maven.apache.org/SETTINGS/1.0.0">
+              <localRepository> ${user.home}/custom-repo </localRepository>
+              <offline>true</offline>
+              <pluginGroups><pluginGroup>org.example.plugins</pluginGroup></pluginGroups>
+              <proxies>
+                <proxy>
+                  <id>corp</id>
+                  <host>proxy.example.com</host>
+                  <nonProxyHosts>localhost|*.internal</nonProxyHosts>
+                </proxy>
+                <proxy>
+                  <id>secure</id>
+                  <active>false</active>
+                  <protocol>https</protocol>
+                  <host>secure-proxy.example.com</host>
+                  <port>3128</port>
+                  <username>proxy-user</username>
+                  <password>{encrypted}</password>
+                </proxy>
+              </proxies>
+              <servers>
+                <server>
+                  <id>nexus</id>
+                  <username>${env.PATH}</username>
+                  <password>secret</password>
+                </server>
+              </servers>
+              <mirrors>
+                <mirror>
+                  <id>nexus</id>
+                  <name>Corporate Nexus</name>
+                  <mirrorOf>external:*,!internal</mirrorOf>
+                  <url>https://nexus.example.com/maven2</url>
+                  <blocked>false</blocked>
+                </mirror>
+              </mirrors>
+              <profiles>
+                <profile>
+                  <id>corp</id>
+                  <activation><activeByDefault>true</activeByDefault></activation>
+                  <properties><some.property>value</some.property></properties>
+                  <repositories>
+                    <repository>
+                      <id>internal</id>
+                      <name>Internal</name>
+                      <url>https://internal.example.com/${env.MVN_SETTINGS_UNDEFINED_VARIABLE}/maven2</url>
+                      <releases><enabled>true</enabled></releases>
+                      <snapshots><enabled>false</enabled><updatePolicy>never</updatePolicy></snapshots>
+                    </repository>
+                    <repository>
+                      <id>central</id>
+                      <url>https://repo.maven.apache.org/maven2</url>
+                    </repository>
+                  </repositories>
+                  <pluginRepositories>
+                    <pluginRepository>
+                      <id>plugins</id>
+                      <url>https://plugins.example.com/${project.version}</url>
+                    </pluginRepository>
+                  </pluginRepositories>
+                </profile>
+              </profiles>
+              <activeProfiles>
+                <activeProfile>corp</activeProfile>
+              </activeProfiles>
+            </settings>
+            """;
+
+    private static final String GLOBAL_SETTINGS = """
+            <settings>
+              <localRepository>/opt/global-repo</localRepository>
+              <servers>
+                <server><id>nexus</id><username>global</username></server>
+                <server><id>global-only</id><username>global</username><password>pw</password></server>
+              </servers>
+              <mirrors>
+                <mirror><id>nexus</id><mirrorOf>*</mirrorOf><url>https://global.example.com</url></mirror>
+                <mirror><id>other</id><mirrorOf>other</mirrorOf><url>https://other.example.com</url></mirror>
+              </mirrors>
+              <profiles>
+                <profile>
+                  <id>global-profile</id>
+                  <repositories>
+                    <repository><id>global-only</id><url>https://global-only.example.com</url></repository>
+                  </repositories>
+                </profile>
+              </profiles>
+              <activeProfiles>
+                <activeProfile>global-profile</activeProfile>
+                <activeProfile>corp</activeProfile>
+              </activeProfiles>
+            </settings>
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private File write(String name, String content) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.writeString(file, content);
+        return file.toFile();
+    }
+
+    private StaxSettingsReader reader() {
+        return new StaxSettingsReader(System::getenv, System.getProperty("user.home"));
+    }
+
+    @Test
+    void read_matchesSettingsBuilderForUserSettings() throws Exception {
+        // Arrange
+        File user = write("settings.xml", FULL_SETTINGS);
+
+        // Act
+        Settings expected = new MavenSettingsLoader().loadSettings(user, null);
+        Settings actual = reader().read(user, null);
+
+        // Assert
+        assertEquals(describe(expected), describe(actual));
+        assertEquals(System.getProperty("user.home") + "/custom-repo", actual.getLocalRepository());
+        assertEquals(System.getenv("PATH"), actual.getServers().get(0).getUsername());
+    }
+
+    @Test
+    void read_matchesSettingsBuilderWhenMergingGlobalSettings() throws Exception {
+        // Arrange
+        File user = write("settings.xml", FULL_SETTINGS);
+        File global = write("global.xml", GLOBAL_SETTINGS);
+
+        // Act
+        Settings expected = new MavenSettingsLoader().loadSettings(user, global);
+        Settings actual = reader().read(user, global);
+
+        // Assert
+        assertEquals(describe(expected), describe(actual));
+        assertEquals(describe(new RepositoryPlanBuilder().build(expected)),
+                describe(new RepositoryPlanBuilder().build(actual)));
+    }
+
+    @Test
+    void read_matchesSettingsBuilderForGlobalSettingsOnly() throws Exception {
+        // Arrange
+        File global = write("global.xml", GLOBAL_SETTINGS);
+        File missing = tempDir.resolve("missing.xml").toFile();
+
+        // Act
+        Settings expected = new MavenSettingsLoader().loadSettings(missing, global);
+        Settings actual = reader().read(missing, global);
+
+        // Assert
+        assertEquals(describe(expected), describe(actual));
+    }
+
+    @Test
+    void read_rejectsWhatItDoesNotSupport() throws Exception {
+        String[] unsupported = {
+                "<settings><servers><server><id>a</id><configuration><timeout>5</timeout></configuration></server></servers></settings>",
+                "<settings><unknownElement>x</unknownElement></settings>",
+                "<settings><mirrors><mirror><id>m</id><mirrorOf>*</mirrorOf></mirror></mirrors></settings>",
+                "<!DOCTYPE settings [<!ENTITY home \"/tmp\">]><settings><localRepository>&home;</localRepository></settings>",
+                "<settings><proxies><proxy><host>h</host><port>eighty</port></proxy></proxies></settings>",
+                "<settings><localRepository>unclosed</settings>"
+        };
+        for (String content : unsupported) {
+            File file = write("unsupported.xml", content);
+
+            assertThrows(UnsupportedSettingsException.class, () -> reader().read(file, null), content);
+        }
+    }
+
+    @Test
+    void loadSettings_fallsBackToSettingsBuilder() throws Exception {
+        // Arrange
+        File user = write("settings.xml",
+                "<settings><servers><server><id>a</id><username>u</username>"
+                        + "<configuration><timeout>5</timeout></configuration></server></servers></settings>");
+
+        // Act
+        Settings settings = new MavenSettingsLoader(true).loadSettings(user, null);
+
+        // Assert
+        assertEquals("u", settings.getServers().get(0).getUsername());
+        assertNotNull(settings.getServers().get(0).getConfiguration());
+    }
+
+    private static String describe(Settings settings) {
+        StringBuilder out = new StringBuilder();
+        out.append("localRepository=").append(settings.getLocalRepository()).append('\n')
+                .append("offline=").append(settings.isOffline()).append('\n')
+                .append("activeProfiles=").append(settings.getActiveProfiles()).append('\n')
+                .append("pluginGroups=").append(settings.getPluginGroups()).append('\n');
+        for (Proxy proxy : settings.getProxies()) {
+            out.append("proxy ").append(proxy.getId()).append(' ').append(proxy.isActive()).append(' ')
+                    .append(proxy.getProtocol()).append(' ').append(proxy.getHost()).append(':').append(proxy.getPort())
+                    .append(' ').append(proxy.getUsername()).append(' ').append(proxy.getPassword()).append(' ')
+                    .append(proxy.getNonProxyHosts()).append('\n');
+        }
+        for (Server server : settings.getServers()) {
+            out.append("server ").append(server.getId()).append(' ').append(server.getUsername()).append(' ')
+                    .append(server.getPassword()).append('\n');
+        }
+        for (Mirror mirror : settings.getMirrors()) {
+            out.append("mirror ").append(mirror.getId()).append(' ').append(mirror.getName()).append(' ')
+                    .append(mirror.getMirrorOf()).append(' ').append(mirror.getUrl()).append(' ')
+                    .append(mirror.getLayout()).append(' ').append(mirror.getMirrorOfLayouts()).append(' ')
+                    .append(mirror.isBlocked()).append('\n');
+        }
+        for (Profile profile : settings.getProfiles()) {
+            out.append("profile ").append(profile.getId()).append('\n');
+            for (Repository repository : profile.getRepositories()) {
+                out.append("  repository ").append(describe(repository)).append('\n');
+            }
+            for (Repository repository : profile.getPluginRepositories()) {
+                out.append("  pluginRepository ").append(describe(repository)).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    private static String describe(Repository repository) {
+        return repository.getId() + ' ' + repository.getName() + ' ' + repository.getUrl() + ' '
+                + repository.getLayout() + ' ' + describe(repository.getReleases()) + ' '
+                + describe(repository.getSnapshots());
+    }
+
+    private static String describe(RepositoryPolicy policy) {
+        return policy == null ? "-" : policy.isEnabled() + "/" + policy.getUpdatePolicy() + "/" + policy.getChecksumPolicy();
+    }
+
+    private static String describe(RepositoryPlan plan) {
+        StringBuilder out = new StringBuilder();
+        for (ResolvedRepository repository : plan.getRepositories()) {
+            out.append(repository.getId()).append(' ').append(repository.getUrl()).append(' ')
+                    .append(repository.getSourceIds()).append(' ')
+                    .append(repository.getCredentials() != null ? repository.getCredentials().getUsername() : "-")
+                    .append('\n');
+        }
+        for (ResolvedProxy proxy : plan.getProxies()) {
+            out.append("proxy ").append(proxy.getId()).append('\n');
+        }
+        return out.append(plan.getActiveProfileCount()).toString();
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.plan;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MirrorSelectorTest {
+
+    @Test
+    void select_returnsTheResolvedMirrorWithItsCredentials() {
+        // Arrange
+        ServerCredentials credentials = new ServerCredentials("corporate", "user", "{encrypted}");
+        MirrorSelector selector = new MirrorSelector(List.of(
+                new ResolvedMirror("google-mirror", "https://google.example.com", "Google", null),
+                new ResolvedMirror("corporate", "https://nexus.example.com", "external:*,!snapshots", credentials)));
+
+        // Act
+        ResolvedMirror central = selector.select("central", "https://repo.maven.apache.org/maven2");
+        ResolvedMirror google = selector.select("Google", "https://dl.google.com/dl/android/maven2/");
+
+        // Assert
+        assertSame(credentials, central.getCredentials());
+        assertEquals("https://google.example.com", google.getUrl());
+        assertNull(selector.select("snapshots", "https://snapshots.example.com"));
+        assertNull(selector.select("internal", "http://localhost:8081/repo"));
+    }
+}
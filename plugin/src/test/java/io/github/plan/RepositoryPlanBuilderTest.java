@@ -0,0 +1,192 @@
+package io.github.plan;
+
+import org.apache.maven.settings.Mirror;
+import org.apache.maven.settings.Profile;
+import org.apache.maven.settings.Repository;
+import org.apache.maven.settings.Server;
+import org.apache.maven.settings.Settings;
+import org.codehaus.plexus.util.xml.Xpp3DomBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryPlanBuilderTest {
+
+    private Settings settingsWithRepositories(String... idsAndUrls) {
+        Settings settings = new Settings();
+        Profile profile = new Profile();
+        profile.setId("profile");
+        for (int i = 0; i < idsAndUrls.length; i += 2) {
+            Repository repository = new Repository();
+            repository.setId(idsAndUrls[i]);
+            repository.setUrl(idsAndUrls[i + 1]);
+            profile.addRepository(repository);
+        }
+        settings.addProfile(profile);
+        settings.addActiveProfile("profile");
+        return settings;
+    }
+
+    private Mirror mirror(String id, String mirrorOf, String url) {
+        Mirror mirror = new Mirror();
+        mirror.setId(id);
+        mirror.setMirrorOf(mirrorOf);
+        mirror.setUrl(url);
+        return mirror;
+    }
+
+    @Test
+    void build_collapsesRepositoriesBehindTheSameMirror() {
+        // Arrange
+        Settings settings = settingsWithRepositories(
+                "central", "https://repo.maven.apache.org/maven2",
+                "snapshots", "https://snapshots.example.com",
+                "releases", "https://releases.example.com");
+        settings.addMirror(mirror("nexus", "*,!releases", "https://nexus.example.com/maven2"));
+
+        // Act
+        RepositoryPlan plan = new RepositoryPlanBuilder().build(settings);
+
+        // Assert
+        List<ResolvedRepository> repositories = plan.getRepositories();
+        assertEquals(2, repositories.size());
+        assertEquals("nexus", repositories.get(0).getId());
+        assertEquals(List.of("central", "snapshots"), repositories.get(0).getSourceIds());
+        assertEquals("releases", repositories.get(1).getId());
+    }
+
+    @Test
+    void build_collapsesUrlsDifferingOnlyByTrailingSlash() {
+        // Arrange
+        Settings settings = settingsWithRepositories(
+                "a", "https://repo.example.com/maven2",
+                "b", "https://repo.example.com/maven2/");
+
+        // Act
+        RepositoryPlan plan = new RepositoryPlanBuilder().build(settings);
+
+        // Assert
+        assertEquals(1, plan.getRepositories().size());
+        assertEquals(List.of("a", "b"), plan.getRepositories().get(0).getSourceIds());
+    }
+
+    @Test
+    void build_keepsRepositoriesWithDifferentCredentialsApart() {
+        // Arrange
+        Settings settings = settingsWithRepositories(
+                "team-a", "https://repo.example.com/maven2",
+                "team-b", "https://repo.example.com/maven2");
+        Server server = new Server();
+        server.setId("team-a");
+        server.setUsername("a");
+        server.setPassword("secret");
+        settings.addServer(server);
+
+        // Act
+        RepositoryPlan plan = new RepositoryPlanBuilder().build(settings);
+
+        // Assert
+        assertEquals(2, plan.getRepositories().size());
+        assertEquals("a", plan.getRepositories().get(0).getCredentials().getUsername());
+        assertNull(plan.getRepositories().get(1).getCredentials());
+    }
+
+    @Test
+    void build_appliesMirrorCredentials() {
+        // Arrange
+        Settings settings = settingsWithRepositories("central", "https://repo.maven.apache.org/maven2");
+        settings.addMirror(mirror("nexus", "central", "https://nexus.example.com/maven2"));
+        Server server = new Server();
+        server.setId("nexus");
+        server.setUsername("user");
+        server.setPassword("{encrypted}");
+        settings.addServer(server);
+
+        // Act
+        ResolvedRepository repository = new RepositoryPlanBuilder().build(settings).getRepositories().get(0);
+
+        // Assert
+        assertEquals("https://nexus.example.com/maven2", repository.getUrl());
+        assertEquals("nexus", repository.getCredentials().getServerId());
+        assertEquals("{encrypted}", repository.getCredentials().getPassword());
+    }
+
+    @Test
+    void build_keepsEveryMirrorWithItsCredentials() {
+        // Arrange
+        Settings settings = new Settings();
+        settings.addMirror(mirror("nexus", "external:*", "https://nexus.example.com/maven2"));
+        settings.addMirror(mirror("snapshots", "snapshots", "https://snapshots.example.com"));
+        Server server = new Server();
+        server.setId("nexus");
+        server.setUsername("user");
+        server.setPassword("{encrypted}");
+        settings.addServer(server);
+
+        // Act
+        List<ResolvedMirror> mirrors = new RepositoryPlanBuilder().build(settings).getMirrors();
+
+        // Assert
+        assertEquals(2, mirrors.size());
+        assertEquals("external:*", mirrors.get(0).getMirrorOf());
+        assertEquals("user", mirrors.get(0).getCredentials().getUsername());
+        assertEquals("https://snapshots.example.com", mirrors.get(1).getUrl());
+        assertNull(mirrors.get(1).getCredentials());
+    }
+
+    @Test
+    void build_readsServerHttpConfiguration() throws Exception {
+        // Arrange
+        Settings settings = settingsWithRepositories("nexus", "https://nexus.example.com/maven2");
+        Server server = new Server();
+        server.setId("nexus");
+        server.setConfiguration(Xpp3DomBuilder.build(new StringReader("""
+                <configuration>
+                  <timeout>45000</timeout>
+                  <httpHeaders>
+                    <property><name>Authorization</name><value>Bearer token</value></property>
+                    <property><name>X-Team</name><value>build</value></property>
+                  </httpHeaders>
+                  <httpConfiguration>
+                    <all>
+                      <connectionTimeout>3000</connectionTimeout>
+                      <retryHandler><count>not-a-number</count></retryHandler>
+                    </all>
+                  </httpConfiguration>
+                </configuration>""")));
+        settings.addServer(server);
+
+        // Act
+        ServerTransport transport = new RepositoryPlanBuilder().build(settings).getRepositories().get(0)
+                .getCredentials().getTransport();
+
+        // Assert
+        assertEquals(Integer.valueOf(3000), transport.getConnectTimeout());
+        assertEquals(Integer.valueOf(45000), transport.getReadTimeout());
+        assertNull(transport.getRetryCount());
+        assertEquals(Map.of("Authorization", "Bearer token", "X-Team", "build"), transport.getHeaders());
+        assertEquals("Authorization", transport.getHeaders().keySet().iterator().next());
+    }
+
+    @Test
+    void build_ignoresServerConfigurationWithoutHttpSettings() throws Exception {
+        // Arrange
+        Settings settings = settingsWithRepositories("nexus", "https://nexus.example.com/maven2");
+        Server server = new Server();
+        server.setId("nexus");
+        server.setConfiguration(Xpp3DomBuilder.build(new StringReader(
+                "<configuration><filePermissions>664</filePermissions></configuration>")));
+        settings.addServer(server);
+
+        // Act
+        ServerCredentials credentials = new RepositoryPlanBuilder().build(settings).getRepositories().get(0)
+                .getCredentials();
+
+        // Assert
+        assertNull(credentials.getTransport());
+    }
+}
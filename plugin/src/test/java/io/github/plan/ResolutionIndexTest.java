@@ -0,0 +1,137 @@
+package io.github.plan;
+
+import org.apache.maven.settings.Mirror;
+import org.apache.maven.settings.Server;
+import org.apache.maven.settings.Settings;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResolutionIndexTest {
+
+    private static final String EXTERNAL_URL = "https://repo.example.com/maven2";
+
+    private Mirror mirror(String id, String mirrorOf) {
+        Mirror mirror = new Mirror();
+        mirror.setId(id);
+        mirror.setMirrorOf(mirrorOf);
+        mirror.setUrl("https://" + id + ".example.com");
+        return mirror;
+    }
+
+    private Settings settingsWith(Mirror... mirrors) {
+        Settings settings = new Settings();
+        for (Mirror mirror : mirrors) {
+            settings.addMirror(mirror);
+        }
+        return settings;
+    }
+
+    private String mirrorId(ResolutionIndex index, String repoId, String repoUrl) {
+        Mirror mirror = index.findMirror(repoId, repoUrl);
+        return mirror != null ? mirror.getId() : null;
+    }
+
+    @Test
+    void findMirror_wildcardMatchesEverything() {
+        ResolutionIndex index = new ResolutionIndex(settingsWith(mirror("all", "*")));
+
+        assertEquals("all", mirrorId(index, "central", EXTERNAL_URL));
+        assertEquals("all", mirrorId(index, "local", "file:///tmp/repo"));
+    }
+
+    @Test
+    void findMirror_externalWildcardSkipsLocalRepositories() {
+        ResolutionIndex index = new ResolutionIndex(settingsWith(mirror("ext", "external:*")));
+
+        assertEquals("ext", mirrorId(index, "central", EXTERNAL_URL));
+        assertNull(mirrorId(index, "local", "http://localhost:8081/repo"));
+        assertNull(mirrorId(index, "loopback", "http://127.0.0.1/repo"));
+        assertNull(mirrorId(index, "files", "file:///tmp/repo"));
+    }
+
+    @Test
+    void findMirror_externalHttpWildcardOnlyMatchesPlainHttp() {
+        ResolutionIndex index = new ResolutionIndex(settingsWith(mirror("http", "external:http:*")));
+
+        assertEquals("http", mirrorId(index, "insecure", "http://repo.example.com"));
+        assertNull(mirrorId(index, "secure", EXTERNAL_URL));
+        assertNull(mirrorId(index, "local", "http://localhost/repo"));
+    }
+
+    @Test
+    void findMirror_exclusionWinsRegardlessOfPosition() {
+        ResolutionIndex index = new ResolutionIndex(settingsWith(mirror("m", "*,!repo3")));
+
+        assertEquals("m", mirrorId(index, "repo1", EXTERNAL_URL));
+        assertNull(mirrorId(index, "repo3", EXTERNAL_URL));
+    }
+
+    @Test
+    void findMirror_listMatchesNamedRepositoriesOnly() {
+        ResolutionIndex index = new ResolutionIndex(settingsWith(mirror("m", "repo1, repo2,!repo3")));
+
+        assertEquals("m", mirrorId(index, "repo1", EXTERNAL_URL));
+        assertEquals("m", mirrorId(index, "repo2", EXTERNAL_URL));
+        assertNull(mirrorId(index, "repo3", EXTERNAL_URL));
+        assertNull(mirrorId(index, "repo4", EXTERNAL_URL));
+    }
+
+    @Test
+    void findMirror_exactMirrorOfTakesPrecedenceOverEarlierPatterns() {
+        ResolutionIndex index = new ResolutionIndex(settingsWith(mirror("all", "*"), mirror("central-mirror", "central")));
+
+        assertEquals("central-mirror", mirrorId(index, "central", EXTERNAL_URL));
+        assertEquals("all", mirrorId(index, "other", EXTERNAL_URL));
+    }
+
+    @Test
+    void findMirror_firstMatchingPatternWins() {
+        ResolutionIndex index = new ResolutionIndex(settingsWith(
+                mirror("some", "repo1,repo2"),
+                mirror("all", "*"),
+                mirror("late", "repo3,repo4")));
+
+        assertEquals("some", mirrorId(index, "repo1", EXTERNAL_URL));
+        assertEquals("all", mirrorId(index, "repo3", EXTERNAL_URL));
+    }
+
+    @Test
+    void findMirror_excludedByWildcardMirrorFallsThroughToLaterMirror() {
+        ResolutionIndex index = new ResolutionIndex(settingsWith(
+                mirror("corporate", "external:*,!snapshots"),
+                mirror("snapshot-mirror", "snapshots,other")));
+
+        assertEquals("snapshot-mirror", mirrorId(index, "snapshots", EXTERNAL_URL));
+        assertEquals("corporate", mirrorId(index, "other", EXTERNAL_URL));
+    }
+
+    @Test
+    void findMirror_scalesToManyMirrors() {
+        Settings settings = new Settings();
+        for (int i = 0; i < 5000; i++) {
+            settings.addMirror(mirror("mirror" + i, "repo" + i));
+        }
+        ResolutionIndex index = new ResolutionIndex(settings);
+
+        assertEquals("mirror4999", mirrorId(index, "repo4999", EXTERNAL_URL));
+        assertNull(mirrorId(index, "unknown", EXTERNAL_URL));
+    }
+
+    @Test
+    void findServer_returnsFirstServerWithId() {
+        Settings settings = new Settings();
+        Server first = new Server();
+        first.setId("nexus");
+        first.setUsername("first");
+        Server second = new Server();
+        second.setId("nexus");
+        second.setUsername("second");
+        settings.addServer(first);
+        settings.addServer(second);
+        ResolutionIndex index = new ResolutionIndex(settings);
+
+        assertEquals("first", index.findServer("nexus").getUsername());
+        assertNull(index.findServer("missing"));
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.plan;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransportConflictsTest {
+
+    private ServerCredentials server(String id, Integer connectTimeout, Integer readTimeout, Integer retryCount) {
+        return new ServerCredentials(id, null, null,
+                new ServerTransport(connectTimeout, readTimeout, retryCount, Map.of()));
+    }
+
+    @Test
+    void find_describesSettingsConfiguredWithDifferentValues() {
+        // Arrange
+        List<ServerCredentials> servers = List.of(server("nexus", 5000, 60000, null),
+                server("central", 20000, 60000, 3), server("snapshots", 20000, null, null));
+
+        // Act
+        List<String> conflicts = TransportConflicts.find(servers);
+
+        // Assert
+        assertEquals(List.of("connect timeout: 5000 ms [nexus], 20000 ms [central, snapshots]"), conflicts);
+    }
+
+    @Test
+    void find_isEmptyWhenServersAgree() {
+        // Arrange
+        List<ServerCredentials> servers = List.of(server("nexus", 5000, null, 2), server("central", 5000, null, 2),
+                new ServerCredentials("plain", "user", "secret"));
+
+        // Act & Assert
+        assertTrue(TransportConflicts.find(servers).isEmpty());
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.probe;
+
+import io.github.plan.ResolvedRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryOrderTest {
+
+    private ResolvedRepository repository(String id) {
+        return new ResolvedRepository(id, "https://" + id + ".example.com", List.of(id), null);
+    }
+
+    private List<String> ids(List<ResolvedRepository> repositories) {
+        List<String> ids = new ArrayList<>();
+        repositories.forEach(repository -> ids.add(repository.getId()));
+        return ids;
+    }
+
+    private Map.Entry<String, ProbeResult> latency(String id, long millis) {
+        String url = "https://" + id + ".example.com";
+        return Map.entry(url, ProbeResult.reachable(url, millis * 1_000_000));
+    }
+
+    private Map.Entry<String, ProbeResult> unreachable(String id) {
+        String url = "https://" + id + ".example.com";
+        return Map.entry(url, ProbeResult.unreachable(url, "timeout"));
+    }
+
+    @Test
+    void order_sortsGroupMembersWithinTheirOwnPositions() {
+        // Arrange
+        List<ResolvedRepository> repositories = List.of(repository("a"), repository("pinned"), repository("b"),
+                repository("c"));
+        Map<String, ProbeResult> probes = Map.ofEntries(latency("a", 300), latency("pinned", 500),
+                latency("b", 100), latency("c", 200));
+
+        // Act
+        List<ResolvedRepository> ordered = RepositoryOrder.order(repositories, probes, List.of(List.of("a", "b", "c")));
+
+        // Assert
+        assertEquals(List.of("b", "pinned", "c", "a"), ids(ordered));
+    }
+
+    @Test
+    void order_putsUnreachableRepositoriesLast() {
+        // Arrange
+        List<ResolvedRepository> repositories = List.of(repository("down"), repository("slow"), repository("fast"));
+        Map<String, ProbeResult> probes = Map.ofEntries(unreachable("down"), latency("slow", 900), latency("fast", 10));
+
+        // Act
+        List<ResolvedRepository> ordered = RepositoryOrder.order(repositories, probes,
+                List.of(List.of("down", "slow", "fast")));
+
+        // Assert
+        assertEquals(List.of("fast", "slow", "down"), ids(ordered));
+    }
+
+    @Test
+    void order_keepsDeclarationOrderWithoutGroups() {
+        // Arrange
+        List<ResolvedRepository> repositories = List.of(repository("slow"), repository("fast"));
+        Map<String, ProbeResult> probes = Map.ofEntries(latency("slow", 900), latency("fast", 10));
+
+        // Act
+        List<ResolvedRepository> ordered = RepositoryOrder.order(repositories, probes, List.of());
+
+        // Assert
+        assertEquals(List.of("slow", "fast"), ids(ordered));
+    }
+
+    @Test
+    void order_matchesMirroredRepositoriesBySourceId() {
+        // Arrange
+        ResolvedRepository mirror = new ResolvedRepository("mirror", "https://mirror.example.com",
+                List.of("central", "other"), null);
+        List<ResolvedRepository> repositories = List.of(mirror, repository("fast"));
+        Map<String, ProbeResult> probes = Map.ofEntries(latency("mirror", 900), latency("fast", 10));
+
+        // Act
+        List<ResolvedRepository> ordered = RepositoryOrder.order(repositories, probes,
+                List.of(List.of("central", "fast")));
+
+        // Assert
+        assertEquals(List.of("fast", "mirror"), ids(ordered));
+    }
+}
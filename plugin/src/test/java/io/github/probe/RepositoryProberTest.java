@@ -0,0 +1,109 @@
+package io.github.probe;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryProberTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    @AfterEach
+    void stopServers() {
+        servers.forEach(server -> server.stop(0));
+    }
+
+    private String startServer(long delayMillis, int status) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        servers.add(server);
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/maven2";
+    }
+
+    @Test
+    void probe_measuresLatencyOfEachRepository() throws Exception {
+        // Arrange
+        String fast = startServer(0, 200);
+        String slow = startServer(300, 404);
+
+        // Act
+        Map<String, ProbeResult> results = new RepositoryProber(Duration.ofSeconds(5)).probe(List.of(slow, fast));
+
+        // Assert
+        assertEquals(List.of(slow, fast), new ArrayList<>(results.keySet()));
+        assertTrue(results.get(fast).isReachable());
+        assertTrue(results.get(slow).isReachable());
+        assertTrue(results.get(slow).getLatencyNanos() >= Duration.ofMillis(300).toNanos());
+        assertTrue(results.get(fast).getLatencyNanos() < results.get(slow).getLatencyNanos());
+    }
+
+    @Test
+    void probe_cutsOffSlowRepositoriesAtTheTimeout() throws Exception {
+        // Arrange
+        String fast = startServer(0, 401);
+        String stuck = startServer(5_000, 200);
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            urls.add(stuck + "/" + i);
+        }
+        urls.add(fast);
+
+        // Act
+        long start = System.nanoTime();
+        Map<String, ProbeResult> results = new RepositoryProber(Duration.ofMillis(500)).probe(urls);
+        long elapsed = System.nanoTime() - start;
+
+        // Assert
+        assertTrue(results.get(fast).isReachable());
+        assertFalse(results.get(stuck + "/0").isReachable());
+        assertNotNull(results.get(stuck + "/0").getFailure());
+        assertTrue(elapsed < Duration.ofSeconds(3).toNanos(), "probing took " + elapsed / 1_000_000 + " ms");
+    }
+
+    @Test
+    void probe_reportsRefusedConnectionsAndMissingDirectories() throws Exception {
+        // Arrange
+        int freePort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            freePort = socket.getLocalPort();
+        }
+        String refused = "http://127.0.0.1:" + freePort + "/maven2";
+        String existing = tempDir.toUri().toString();
+        String missing = tempDir.resolve("missing").toUri().toString();
+
+        // Act
+        Map<String, ProbeResult> results = new RepositoryProber(Duration.ofSeconds(2))
+                .probe(List.of(refused, existing, missing));
+
+        // Assert
+        assertFalse(results.get(refused).isReachable());
+        assertTrue(results.get(existing).isReachable());
+        assertFalse(results.get(missing).isReachable());
+    }
+}
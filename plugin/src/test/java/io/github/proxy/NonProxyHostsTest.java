@@ -0,0 +1,52 @@
+package io.github.proxy;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NonProxyHostsTest {
+
+    @Test
+    void matches_exactHostsIgnoringCase() {
+        NonProxyHosts hosts = NonProxyHosts.compile("localhost|Nexus.Corp");
+
+        assertTrue(hosts.matches("localhost"));
+        assertTrue(hosts.matches("nexus.corp"));
+        assertFalse(hosts.matches("repo.maven.apache.org"));
+    }
+
+    @Test
+    void matches_suffixAndPrefixWildcards() {
+        NonProxyHosts hosts = NonProxyHosts.compile("*.internal|10.0.*");
+
+        assertTrue(hosts.matches("nexus.internal"));
+        assertTrue(hosts.matches("10.0.3.7"));
+        assertFalse(hosts.matches("internal.example.com"));
+        assertFalse(hosts.matches("110.0.3.7"));
+    }
+
+    @Test
+    void matches_wildcardInTheMiddle() {
+        NonProxyHosts hosts = NonProxyHosts.compile("repo*.corp.net");
+
+        assertTrue(hosts.matches("repo1.corp.net"));
+        assertFalse(hosts.matches("repo1.corp.org"));
+    }
+
+    @Test
+    void matches_acceptsCommaSeparatorAndBlankEntries() {
+        NonProxyHosts hosts = NonProxyHosts.compile(" localhost , *.internal || ");
+
+        assertTrue(hosts.matches("localhost"));
+        assertTrue(hosts.matches("a.internal"));
+        assertFalse(hosts.matches(""));
+    }
+
+    @Test
+    void matches_nothingWhenUnset() {
+        NonProxyHosts hosts = NonProxyHosts.compile(null);
+
+        assertFalse(hosts.matches("localhost"));
+        assertFalse(hosts.matches(null));
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.proxy;
+
+import io.github.plan.ResolvedProxy;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProxyPropertiesTest {
+
+    private final ProxySelection selection = new ProxySelection(List.of(new ResolvedProxy("corp", "http",
+            "proxy.example.com", 3128, "proxy-user", "s3cret", "localhost,*.internal")));
+
+    @Test
+    void missing_listsGradlePropertiesWithoutThePassword() {
+        // Act
+        List<String> lines = ProxyProperties.missing(selection, Map.<String, String>of()::get);
+
+        // Assert
+        assertTrue(lines.contains("systemProp.http.proxyHost=proxy.example.com"));
+        assertTrue(lines.contains("systemProp.https.proxyPort=3128"));
+        assertTrue(lines.contains("systemProp.https.proxyUser=proxy-user"));
+        assertTrue(lines.contains("systemProp.https.proxyPassword=<password of proxy 'corp'>"));
+        assertTrue(lines.contains("systemProp.http.nonProxyHosts=localhost|*.internal"));
+        assertFalse(String.join("\n", lines).contains("s3cret"));
+    }
+
+    @Test
+    void missing_isEmptyWhenTheSystemPropertiesMatch() {
+        // Arrange
+        Map<String, String> properties = Map.of(
+                "http.proxyHost", "proxy.example.com", "http.proxyPort", "3128", "http.proxyUser", "proxy-user",
+                "https.proxyHost", "proxy.example.com", "https.proxyPort", "3128", "https.proxyUser", "proxy-user",
+                "http.nonProxyHosts", "localhost|*.internal");
+
+        // Act & Assert
+        assertEquals(List.of(), ProxyProperties.missing(selection, properties::get));
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.proxy;
+
+import io.github.plan.ResolvedProxy;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProxySelectionTest {
+
+    private ResolvedProxy proxy(String id, String protocol, String nonProxyHosts) {
+        return new ResolvedProxy(id, protocol, id + ".example.com", 3128, null, null, nonProxyHosts);
+    }
+
+    @Test
+    void forUrl_usesProxyDeclaredForTheProtocol() {
+        ProxySelection selection = new ProxySelection(List.of(proxy("plain", "http", null),
+                proxy("secure", "https", null)));
+
+        assertEquals("plain", selection.forUrl("http://repo.example.com/maven2").getId());
+        assertEquals("secure", selection.forUrl("https://repo.example.com/maven2").getId());
+    }
+
+    @Test
+    void forUrl_httpProxyAlsoServesHttps() {
+        ProxySelection selection = new ProxySelection(List.of(proxy("plain", "http", null)));
+
+        assertEquals("plain", selection.forUrl("https://repo.example.com/maven2").getId());
+    }
+
+    @Test
+    void forUrl_movesOnToTheNextProxyWhenTheHostIsBypassed() {
+        ProxySelection selection = new ProxySelection(List.of(proxy("external", "https", "*.internal"),
+                proxy("internal", "https", "*.example.com"), proxy("plain", "http", null)));
+
+        assertEquals("internal", selection.forUrl("https://nexus.internal/repository/maven").getId());
+        assertEquals("external", selection.forUrl("https://repo.example.com/maven2").getId());
+        assertEquals("plain", selection.forUrl("http://nexus.internal/repository/maven").getId());
+    }
+
+    @Test
+    void forUrl_goesDirectWhenEveryProxyBypassesTheHost() {
+        ProxySelection selection = new ProxySelection(List.of(proxy("secure", "https", "*.internal"),
+                proxy("plain", "http", null)));
+
+        assertNull(selection.forUrl("https://nexus.internal/repository/maven"));
+    }
+
+    @Test
+    void forUrl_bypassesNonProxyHostsAndLocalRepositories() {
+        ProxySelection selection = new ProxySelection(List.of(proxy("plain", "http", "*.internal")));
+
+        assertNull(selection.forUrl("https://nexus.internal/repository/maven"));
+        assertNull(selection.forUrl("file:///tmp/repo"));
+        assertNotNull(selection.forUrl("https://repo.example.com/maven2"));
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.proxy;
+
+import io.github.plan.ResolvedProxy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SystemProxyPropertiesTest {
+
+    private static final String[] PROPERTIES = {"http.proxyHost", "http.proxyPort", "http.proxyUser",
+            "http.proxyPassword", "http.nonProxyHosts", "https.proxyHost", "https.proxyPort"};
+
+    @AfterEach
+    void clearProperties() {
+        for (String property : PROPERTIES) {
+            System.clearProperty(property);
+        }
+    }
+
+    @Test
+    void apply_setsPropertiesOnlyIfAbsentAndRestoresThemOnClose() {
+        // Arrange
+        System.setProperty("https.proxyHost", "gradle-proxy");
+        ProxySelection selection = new ProxySelection(List.of(new ResolvedProxy("plain", "http",
+                "plain.example.com", 3128, null, null, "localhost,*.internal")));
+        SystemProxyProperties properties = new SystemProxyProperties();
+
+        // Act
+        properties.apply(selection, password -> password);
+
+        // Assert
+        assertEquals("plain.example.com", System.getProperty("http.proxyHost"));
+        assertEquals("3128", System.getProperty("http.proxyPort"));
+        assertEquals("localhost|*.internal", System.getProperty("http.nonProxyHosts"));
+        assertEquals("gradle-proxy", System.getProperty("https.proxyHost"));
+        assertNull(System.getProperty("https.proxyPort"));
+
+        properties.close();
+        assertNull(System.getProperty("http.proxyHost"));
+        assertNull(System.getProperty("http.nonProxyHosts"));
+        assertEquals("gradle-proxy", System.getProperty("https.proxyHost"));
+    }
+
+    @Test
+    void apply_setsTheDecryptedPassword() {
+        // Arrange
+        ProxySelection selection = new ProxySelection(List.of(new ResolvedProxy("corp", "http",
+                "proxy.example.com", 3128, "proxy-user", "{encrypted}", null)));
+        SystemProxyProperties properties = new SystemProxyProperties();
+
+        // Act
+        properties.apply(selection, password -> "decrypted " + password);
+
+        // Assert
+        assertEquals("proxy-user", System.getProperty("http.proxyUser"));
+        assertEquals("decrypted {encrypted}", System.getProperty("http.proxyPassword"));
+        properties.close();
+        assertNull(System.getProperty("http.proxyPassword"));
+    }
+}
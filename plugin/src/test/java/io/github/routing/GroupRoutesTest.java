@@ -0,0 +1,31 @@
+package io.github.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupRoutesTest {
+
+    @Test
+    void routedTo_returnsTheGroupsOfTheRepository() {
+        // Arrange
+        Map<String, String> routes = Map.of("com.acme", "internal", "org.apache", "central", "com.beta", "internal");
+
+        // Act & Assert
+        assertEquals(List.of("com.acme", "com.beta"), List.copyOf(GroupRoutes.routedTo("internal", routes)));
+        assertEquals(Set.of("org.apache"), GroupRoutes.routedTo("central", routes));
+    }
+
+    @Test
+    void routedTo_isEmptyForRepositoriesWithoutRoutes() {
+        // Act
+        Set<String> groups = GroupRoutes.routedTo("central", Map.of("com.acme", "internal"));
+
+        // Assert
+        assertTrue(groups.isEmpty());
+    }
+}
@@ -0,0 +1,219 @@
+package io.github.service;
+
+import io.github.crypto.DecryptionCache;
+import io.github.plan.RepositoryPlan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DaemonSettingsCacheTest {
+
+    private static final String SETTINGS = "<settings><localRepository>/repo-a</localRepository></settings>";
+    private static final String EDITED = "<settings><localRepository>/repo-b</localRepository></settings>";
+
+    @TempDir
+    Path tempDir;
+
+    private final DaemonSettingsCache cache = new DaemonSettingsCache(Duration.ofHours(1));
+
+    @AfterEach
+    void stopWatching() {
+        cache.clear();
+    }
+
+    private RepositoryPlan plan() {
+        return new RepositoryPlan(List.of(), List.of(), 0, null, List.of());
+    }
+
+    private SettingsFiles cached(DaemonSettingsCache cache, Path settings, RepositoryPlan plan) {
+        SettingsFiles files = new SettingsFiles(settings.toFile(), null, tempDir.resolve("settings-security.xml").toFile());
+        cache.put(cache.snapshot(files), plan);
+        return files;
+    }
+
+    // Edits the file without changing its size or modification time
+    private void editInPlace(Path file, String content) throws IOException {
+        FileTime modified = Files.getLastModifiedTime(file);
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, modified);
+    }
+
+    private boolean eventuallyMisses(DaemonSettingsCache cache, SettingsFiles files) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (cache.getPlan(files) == null) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+
+    @Test
+    void getPlan_returnsPlanWhileFilesAreUnchanged() throws IOException {
+        // Arrange
+        Path settings = Files.writeString(tempDir.resolve("settings.xml"), SETTINGS);
+        RepositoryPlan plan = plan();
+        SettingsFiles files = cached(cache, settings, plan);
+
+        // Act & Assert
+        assertSame(plan, cache.getPlan(files));
+        assertSame(plan, cache.getPlan(files));
+    }
+
+    @Test
+    void getPlan_missesAfterFileIsEdited() throws IOException {
+        // Arrange
+        Path settings = Files.writeString(tempDir.resolve("settings.xml"), SETTINGS);
+        SettingsFiles files = cached(cache, settings, plan());
+
+        // Act
+        Files.writeString(settings, EDITED + "\n");
+
+        // Assert
+        assertNull(cache.getPlan(files));
+    }
+
+    @Test
+    void getPlan_watcherSeesEditsThatKeepSizeAndTime() throws Exception {
+        // Arrange
+        Path settings = Files.writeString(tempDir.resolve("settings.xml"), SETTINGS);
+        SettingsFiles files = cached(cache, settings, plan());
+
+        // Act
+        editInPlace(settings, EDITED);
+
+        // Assert
+        assertTrue(eventuallyMisses(cache, files));
+    }
+
+    @Test
+    void getPlan_hashCheckSeesEditsThatKeepSizeAndTime() throws IOException {
+        // Arrange
+        DaemonSettingsCache alwaysVerified = new DaemonSettingsCache(Duration.ZERO);
+        Path settings = Files.writeString(tempDir.resolve("settings.xml"), SETTINGS);
+        SettingsFiles files = cached(alwaysVerified, settings, plan());
+
+        try {
+            // Act
+            editInPlace(settings, EDITED);
+
+            // Assert
+            assertNull(alwaysVerified.getPlan(files));
+        } finally {
+            alwaysVerified.clear();
+        }
+    }
+
+    @Test
+    void getPlan_missesAfterFileIsRecreated() throws Exception {
+        // Arrange
+        Path settings = Files.writeString(tempDir.resolve("settings.xml"), SETTINGS);
+        SettingsFiles files = cached(cache, settings, plan());
+        FileTime modified = Files.getLastModifiedTime(settings);
+
+        // Act
+        Files.delete(settings);
+        Files.writeString(settings, EDITED);
+        Files.setLastModifiedTime(settings, modified);
+
+        // Assert
+        assertTrue(eventuallyMisses(cache, files));
+    }
+
+    @Test
+    void getPlan_missesAfterSymlinkIsRetargeted() throws IOException {
+        // Arrange
+        Path first = Files.writeString(Files.createDirectories(tempDir.resolve("a")).resolve("settings.xml"), SETTINGS);
+        Path second = Files.writeString(Files.createDirectories(tempDir.resolve("b")).resolve("settings.xml"), SETTINGS);
+        Path link = Files.createSymbolicLink(tempDir.resolve("settings.xml"), first);
+        SettingsFiles files = cached(cache, link, plan());
+
+        // Act
+        Files.delete(link);
+        Files.createSymbolicLink(link, second);
+
+        // Assert
+        assertNull(cache.getPlan(files));
+    }
+
+    @Test
+    void getPlan_missesAfterSymlinkTargetIsEdited() throws Exception {
+        // Arrange
+        Path target = Files.writeString(Files.createDirectories(tempDir.resolve("real")).resolve("settings.xml"),
+                SETTINGS);
+        Path link = Files.createSymbolicLink(tempDir.resolve("settings.xml"), target);
+        SettingsFiles files = cached(cache, link, plan());
+
+        // Act
+        editInPlace(target, EDITED);
+
+        // Assert
+        assertTrue(eventuallyMisses(cache, files));
+    }
+
+    @Test
+    void getPlan_missesAfterSecuritySettingsAreCreated() throws IOException {
+        // Arrange
+        Path settings = Files.writeString(tempDir.resolve("settings.xml"), SETTINGS);
+        SettingsFiles files = cached(cache, settings, plan());
+
+        // Act
+        Files.writeString(tempDir.resolve("settings-security.xml"), "<settingsSecurity/>");
+
+        // Assert
+        assertNull(cache.getPlan(files));
+    }
+
+    @Test
+    void getPlan_keepsWatchingAcrossLookups() throws Exception {
+        // Arrange
+        Path settings = Files.writeString(tempDir.resolve("settings.xml"), SETTINGS);
+        RepositoryPlan plan = plan();
+        SettingsFiles files = cached(cache, settings, plan);
+        assertSame(plan, cache.getPlan(files));
+
+        // Act
+        editInPlace(settings, EDITED);
+
+        // Assert
+        assertTrue(eventuallyMisses(cache, files));
+    }
+
+    @Test
+    void getDecryptions_keepsDecryptionsWithThePlan() throws IOException {
+        // Arrange
+        Path settings = Files.writeString(tempDir.resolve("settings.xml"), SETTINGS);
+        SettingsFiles files = cached(cache, settings, plan());
+        DecryptionCache decryptions = cache.getDecryptions(files);
+
+        // Act
+        cache.getPlan(files);
+
+        // Assert
+        assertNotNull(decryptions);
+        assertSame(decryptions, cache.getDecryptions(files));
+    }
+
+    @Test
+    void getDecryptions_dropsDecryptionsWhenFilesChange() throws IOException {
+        // Arrange
+        Path settings = Files.writeString(tempDir.resolve("settings.xml"), SETTINGS);
+        SettingsFiles files = cached(cache, settings, plan());
+
+        // Act
+        Files.writeString(tempDir.resolve("settings-security.xml"), "<settingsSecurity/>");
+        cache.getPlan(files);
+
+        // Assert
+        assertNull(cache.getDecryptions(files));
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.snapshot;
+
+import io.github.plan.RepositoryPlan;
+import io.github.plan.ResolvedMirror;
+import io.github.plan.ResolvedProxy;
+import io.github.plan.ResolvedRepository;
+import io.github.plan.ServerCredentials;
+import io.github.plan.ServerTransport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SettingsSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private RepositoryPlan samplePlan() {
+        return new RepositoryPlan(List.of(
+                new ResolvedRepository("nexus", "https://nexus.example.com/maven2", List.of("central"),
+                        new ServerCredentials("nexus", "deployer", "{encrypted}")),
+                new ResolvedRepository("plain", "https://plain.example.com", List.of("plain"), null)),
+                List.of(new ResolvedProxy("corp-proxy", "http", "proxy.example.com", 8080, "proxy-user", "secret",
+                        "localhost")), 1,
+                null,
+                List.of(new ResolvedMirror("nexus", "https://nexus.example.com/maven2", "*",
+                        new ServerCredentials("nexus", null, null,
+                                new ServerTransport(5000, null, null, Map.of("Private-Token", "abc"))))));
+    }
+
+    @Test
+    void export_replacesSecretsWithEnvironmentReferences() {
+        // Act
+        SettingsSnapshot snapshot = SettingsSnapshot.export(samplePlan());
+
+        // Assert
+        RepositoryPlan plan = snapshot.getPlan();
+        assertEquals("deployer", plan.getRepositories().get(0).getCredentials().getUsername());
+        assertEquals("${env.MAVEN_SERVER_NEXUS_PASSWORD}", plan.getRepositories().get(0).getCredentials().getPassword());
+        assertEquals("${env.MAVEN_PROXY_CORP_PROXY_PASSWORD}", plan.getProxies().get(0).getPassword());
+        assertEquals("${env.MAVEN_SERVER_NEXUS_HEADER_PRIVATE_TOKEN}",
+                plan.getMirrors().get(0).getCredentials().getTransport().getHeaders().get("Private-Token"));
+        assertEquals(Integer.valueOf(5000), plan.getMirrors().get(0).getCredentials().getTransport().getConnectTimeout());
+        assertEquals(Set.of("MAVEN_SERVER_NEXUS_PASSWORD", "MAVEN_PROXY_CORP_PROXY_PASSWORD",
+                "MAVEN_SERVER_NEXUS_HEADER_PRIVATE_TOKEN"), snapshot.getEnvironmentVariables());
+    }
+
+    @Test
+    void writeAndRead_resolvesSecretsFromTheEnvironment() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("snapshot/settings.bin");
+        SettingsSnapshot.export(samplePlan()).write(file);
+        Map<String, String> environment = Map.of(
+                "MAVEN_SERVER_NEXUS_PASSWORD", "s3cret",
+                "MAVEN_SERVER_NEXUS_HEADER_PRIVATE_TOKEN", "token");
+
+        // Act
+        SettingsSnapshot snapshot = SettingsSnapshot.read(file);
+        RepositoryPlan plan = snapshot.resolve(environment::get);
+
+        // Assert
+        assertEquals(3, snapshot.getEnvironmentVariables().size());
+        assertEquals(2, plan.getRepositories().size());
+        assertEquals("https://nexus.example.com/maven2", plan.getRepositories().get(0).getUrl());
+        assertEquals("s3cret", plan.getRepositories().get(0).getCredentials().getPassword());
+        assertNull(plan.getRepositories().get(1).getCredentials());
+        assertEquals("token",
+                plan.getMirrors().get(0).getCredentials().getTransport().getHeaders().get("Private-Token"));
+        assertEquals("proxy-user", plan.getProxies().get(0).getUsername());
+        assertNull(plan.getProxies().get(0).getPassword());
+    }
+
+    @Test
+    void read_rejectsOtherFiles() throws IOException {
+        // Arrange
+        Path file = Files.writeString(tempDir.resolve("settings.xml"), "<settings/>");
+
+        // Act & Assert
+        IOException e = assertThrows(IOException.class, () -> SettingsSnapshot.read(file));
+        assertTrue(e.getMessage().contains("Not a Maven settings snapshot"));
+    }
+}
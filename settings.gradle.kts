@@ -1,2 +1,3 @@
 rootProject.name = "gradle-mvn-settings"
 include("plugin")
+include("benchmarks")